@@ -2,8 +2,64 @@ package com.guikipt.pixelmonmorpher;
 
 import net.neoforged.neoforge.common.ModConfigSpec;
 
+import java.util.List;
+
 public class Config {
     private static final ModConfigSpec.Builder BUILDER = new ModConfigSpec.Builder();
 
+    public static final ModConfigSpec.BooleanValue PREWARM_CATALOG = BUILDER
+        .comment("Resolve flight, water and hitbox data for every species and form when the server starts")
+        .define("prewarmCatalog", false);
+
+    public static final ModConfigSpec.IntValue REQUEST_BURST = BUILDER
+        .comment("How many morph menu requests a player can send in a burst before being throttled")
+        .defineInRange("requestBurst", 3, 1, 100);
+
+    public static final ModConfigSpec.DoubleValue REQUEST_REFILL_SECONDS = BUILDER
+        .comment("Seconds for a throttled player to regain one morph menu request (0 disables throttling)")
+        .defineInRange("requestRefillSeconds", 2.0, 0.0, 3600.0);
+
+    public static final ModConfigSpec.ConfigValue<String> THROTTLE_MESSAGE = BUILDER
+        .comment("Message shown to a player whose morph request was throttled (empty for none)")
+        .define("throttleMessage", "§cYou are morphing too fast, please wait a moment.");
+
+    public static final ModConfigSpec.DoubleValue MIN_MORPH_SIZE = BUILDER
+        .comment("Smallest size multiplier a morph may use")
+        .defineInRange("minMorphSize", 0.1, 0.01, 10.0);
+
+    public static final ModConfigSpec.DoubleValue MAX_MORPH_SIZE = BUILDER
+        .comment("Largest size multiplier a morph may use")
+        .defineInRange("maxMorphSize", 5.0, 0.01, 10.0);
+
+    public static final ModConfigSpec.DoubleValue MAX_MORPH_WIDTH = BUILDER
+        .comment("Largest hitbox width in blocks a morph may end up with, after the size multiplier")
+        .defineInRange("maxMorphWidth", 8.0, 0.1, 256.0);
+
+    public static final ModConfigSpec.DoubleValue MAX_MORPH_HEIGHT = BUILDER
+        .comment("Largest hitbox height in blocks a morph may end up with, after the size multiplier")
+        .defineInRange("maxMorphHeight", 16.0, 0.1, 256.0);
+
+    public static final ModConfigSpec.IntValue POLICY_BYPASS_LEVEL = BUILDER
+        .comment("Permission level that ignores the morph size limits, unless a permission plugin",
+            "sets the pixelmonmorpher.morph.ignore_size_limits node")
+        .defineInRange("policyBypassLevel", 2, 0, 4);
+
+    public static final ModConfigSpec.ConfigValue<List<? extends String>> BLOCKED_MORPHS = BUILDER
+        .comment("Species (\"name\") or forms (\"name:form\") players can't morph into",
+            "unless a permission plugin grants pixelmonmorpher.morph.all_species (defaults to policyBypassLevel)")
+        .defineListAllowEmpty("blockedMorphs", List.of(), () -> "", entry -> entry instanceof String);
+
+    public static final ModConfigSpec.ConfigValue<List<? extends String>> ALLOWED_PALETTES = BUILDER
+        .comment("Palettes other than \"none\" and \"shiny\" that morphs may use (empty allows any palette)")
+        .defineListAllowEmpty("allowedPalettes", List.of(), () -> "", entry -> entry instanceof String);
+
+    public static final ModConfigSpec.BooleanValue AUDIT_LOG = BUILDER
+        .comment("Record every morph and unmorph, with its source, in the world's morph audit log")
+        .define("auditLog", true);
+
+    public static final ModConfigSpec.IntValue AUDIT_SEGMENT_KB = BUILDER
+        .comment("Size in KiB at which the morph audit log starts a new segment file")
+        .defineInRange("auditSegmentKb", 4096, 64, 1048576);
+
     static final ModConfigSpec SPEC = BUILDER.build();
 }
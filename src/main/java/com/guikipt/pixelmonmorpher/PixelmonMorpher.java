@@ -2,9 +2,19 @@ package com.guikipt.pixelmonmorpher;
 
 import org.slf4j.Logger;
 
+import com.guikipt.pixelmonmorpher.command.MorphAuditCommand;
+import com.guikipt.pixelmonmorpher.command.MorphCaptureCommand;
+import com.guikipt.pixelmonmorpher.command.MorphOfflineCommand;
+import com.guikipt.pixelmonmorpher.command.MorphStatsCommand;
 import com.guikipt.pixelmonmorpher.command.PokeMorphCommand;
 import com.guikipt.pixelmonmorpher.command.PokeUnmorphCommand;
 import com.guikipt.pixelmonmorpher.item.SynchroMachineItem;
+import com.guikipt.pixelmonmorpher.morph.MorphAuditLog;
+import com.guikipt.pixelmonmorpher.morph.MorphCatalogCache;
+import com.guikipt.pixelmonmorpher.morph.MorphCatalogSnapshot;
+import com.guikipt.pixelmonmorpher.morph.MorphOfflineIndex;
+import com.guikipt.pixelmonmorpher.morph.MorphPrewarm;
+import com.guikipt.pixelmonmorpher.morph.MorphTraitRules;
 import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
 import com.mojang.logging.LogUtils;
 
@@ -20,7 +30,9 @@ import net.neoforged.fml.common.Mod;
 import net.neoforged.fml.config.ModConfig;
 import net.neoforged.fml.ModContainer;
 import net.neoforged.neoforge.common.NeoForge;
+import net.neoforged.neoforge.event.AddReloadListenerEvent;
 import net.neoforged.neoforge.event.server.ServerStartingEvent;
+import net.neoforged.neoforge.event.server.ServerStoppingEvent;
 import net.neoforged.neoforge.registries.DeferredHolder;
 import net.neoforged.neoforge.registries.DeferredItem;
 import net.neoforged.neoforge.registries.DeferredRegister;
@@ -79,5 +91,39 @@ public class PixelmonMorpher {
         // Register commands
         PokeMorphCommand.register(event.getServer().getCommands().getDispatcher());
         PokeUnmorphCommand.register(event.getServer().getCommands().getDispatcher());
+        MorphStatsCommand.register(event.getServer().getCommands().getDispatcher());
+        MorphCaptureCommand.register(event.getServer().getCommands().getDispatcher());
+        MorphOfflineCommand.register(event.getServer().getCommands().getDispatcher());
+        MorphAuditCommand.register(event.getServer().getCommands().getDispatcher());
+
+        // Seed the trait and dimension tables from the on-disk catalog if it still matches Pixelmon's data
+        MorphCatalogCache.load();
+
+        // Thread-safe species/form index for validating client requests off the main thread; rebuilt on every /reload
+        MorphCatalogSnapshot.rebuild();
+
+        // Memory-mapped UUID -> morph index for querying and editing offline players
+        MorphOfflineIndex.open(event.getServer());
+
+        // Background writer for the append-only morph audit log
+        MorphAuditLog.start(event.getServer());
+
+        // Optionally resolve every species/form up front so no morph hits a cold lookup
+        if (Config.PREWARM_CATALOG.get()) {
+            MorphPrewarm.run();
+            MorphCatalogCache.saveAsync();
+        }
+    }
+
+    @SubscribeEvent
+    public void onAddReloadListeners(AddReloadListenerEvent event) {
+        // Datapack morph traits and the request validator's species index, rebuilt on every /reload
+        event.addListener(new MorphTraitRules());
+    }
+
+    @SubscribeEvent
+    public void onServerStopping(ServerStoppingEvent event) {
+        // Persist anything resolved during play so the next boot starts warm
+        MorphCatalogCache.save();
     }
 }
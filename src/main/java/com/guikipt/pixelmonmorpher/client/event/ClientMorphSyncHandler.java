@@ -0,0 +1,24 @@
+package com.guikipt.pixelmonmorpher.client.event;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.client.morph.ClientMorphCache;
+import com.guikipt.pixelmonmorpher.client.morph.ClientMorphCatalog;
+
+import net.neoforged.api.distmarker.Dist;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.client.event.ClientPlayerNetworkEvent;
+
+/**
+ * Resets the client morph cache and epochs when leaving a server,
+ * since the next server starts counting epochs from scratch, and forgets that server's morph catalog.
+ */
+@EventBusSubscriber(modid = PixelmonMorpher.MODID, value = Dist.CLIENT)
+public class ClientMorphSyncHandler {
+
+    @SubscribeEvent
+    public static void onLoggingOut(ClientPlayerNetworkEvent.LoggingOut event) {
+        ClientMorphCache.clear();
+        ClientMorphCatalog.clear();
+    }
+}
@@ -13,17 +13,44 @@ import net.minecraft.world.entity.player.Player;
 
 /**
  * Client-side cache of morph data for rendering.
+ * Also holds the last applied morph epoch per player, so stale sync packets can be dropped.
  */
 public class ClientMorphCache {
     private static final Map<UUID, MorphData> CACHE = new ConcurrentHashMap<>();
+    private static final Map<UUID, Integer> EPOCHS = new ConcurrentHashMap<>();
 
     public static MorphData get(AbstractClientPlayer player) {
         return CACHE.get(player.getUUID());
     }
 
-    public static void setMorph(UUID playerId, MorphData data) {
+    public static MorphData get(UUID playerId) {
+        return CACHE.get(playerId);
+    }
+
+    /**
+     * Last applied epoch for a player, or -1 if nothing was received yet
+     */
+    public static int getEpoch(UUID playerId) {
+        return EPOCHS.getOrDefault(playerId, -1);
+    }
+
+    public static void setMorph(UUID playerId, MorphData data, int epoch) {
+        setMorph(playerId, data, epoch, true);
+    }
+
+    /**
+     * @param refresh whether to refresh the player's dimensions now; snapshots skip it for players
+     *                that aren't loaded yet, since they pick the cached size up when they are added
+     */
+    public static void setMorph(UUID playerId, MorphData data, int epoch, boolean refresh) {
+        EPOCHS.put(playerId, epoch);
         MorphData oldData = CACHE.get(playerId);
 
+        // Morph data is interned, so an identical morph is the same instance and needs no rebuild
+        if (oldData == data) {
+            return;
+        }
+
         // Clear entity cache if morph is changing
         if (oldData != null && oldData.isMorphed()) {
             ClientMorphFactory.clearCache(playerId);
@@ -36,6 +63,10 @@ public class ClientMorphCache {
             CACHE.put(playerId, data);
         }
 
+        if (!refresh) {
+            return;
+        }
+
         // CRITICAL: Force dimension refresh on the client
         Minecraft mc = Minecraft.getInstance();
         if (mc.level != null) {
@@ -46,6 +77,15 @@ public class ClientMorphCache {
         }
     }
 
+    /**
+     * Forget everything, used when leaving a server
+     */
+    public static void clear() {
+        CACHE.clear();
+        EPOCHS.clear();
+        ClientMorphFactory.clearAll();
+    }
+
     public static boolean isMorphed(AbstractClientPlayer player) {
         MorphData data = get(player);
         return data != null && data.isMorphed();
@@ -0,0 +1,117 @@
+package com.guikipt.pixelmonmorpher.client.morph;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.morph.MorphCatalogView;
+
+import net.neoforged.fml.loading.FMLPaths;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * The morph catalog the server sent for this player, used by the morph menu.
+ * Catalogs are cached on disk by content hash, so reconnecting to a server whose catalog didn't change
+ * only costs the hash.
+ */
+public class ClientMorphCatalog {
+
+    // Cached catalogs kept on disk; older ones are pruned
+    private static final int MAX_CACHED = 16;
+
+    private static volatile MorphCatalogView current;
+
+    /**
+     * The current server's catalog, or null if the server sent none (e.g. an older server)
+     */
+    public static MorphCatalogView get() {
+        return current;
+    }
+
+    /**
+     * Use the cached catalog with this hash, if there is a valid one on disk
+     */
+    public static boolean loadCached(long hash) {
+        Path path = getPath(hash);
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+        try {
+            byte[] bytes = Files.readAllBytes(path);
+            if (MorphCatalogView.hash(bytes) != hash) {
+                return false;
+            }
+            current = MorphCatalogView.fromBytes(bytes);
+            // Keep catalogs in use from being pruned
+            Files.setLastModifiedTime(path, FileTime.fromMillis(System.currentTimeMillis()));
+            return true;
+        } catch (IOException | RuntimeException e) {
+            PixelmonMorpher.LOGGER.warn("Ignoring unreadable morph catalog cache {}", path.getFileName(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Use a catalog sent by the server and cache it on disk
+     */
+    public static void accept(long hash, byte[] bytes) {
+        if (MorphCatalogView.hash(bytes) != hash) {
+            PixelmonMorpher.LOGGER.warn("Morph catalog does not match its hash, ignoring it");
+            return;
+        }
+        try {
+            current = MorphCatalogView.fromBytes(bytes);
+        } catch (RuntimeException e) {
+            PixelmonMorpher.LOGGER.warn("Malformed morph catalog from server", e);
+            return;
+        }
+        CompletableFuture.runAsync(() -> write(hash, bytes));
+    }
+
+    public static void clear() {
+        current = null;
+    }
+
+    private static void write(long hash, byte[] bytes) {
+        Path path = getPath(hash);
+        try {
+            Files.createDirectories(path.getParent());
+            Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+            Files.write(temp, bytes);
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            prune(path.getParent());
+        } catch (IOException e) {
+            PixelmonMorpher.LOGGER.warn("Failed to cache morph catalog", e);
+        }
+    }
+
+    private static void prune(Path dir) throws IOException {
+        List<Path> files;
+        try (Stream<Path> stream = Files.list(dir)) {
+            files = stream.filter(file -> file.getFileName().toString().endsWith(".bin"))
+                .sorted(Comparator.comparingLong(ClientMorphCatalog::lastModified).reversed())
+                .toList();
+        }
+        for (int i = MAX_CACHED; i < files.size(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+
+    private static long lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file).toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static Path getPath(long hash) {
+        return FMLPaths.GAMEDIR.get().resolve(PixelmonMorpher.MODID).resolve("catalogs").resolve(Long.toHexString(hash) + ".bin");
+    }
+}
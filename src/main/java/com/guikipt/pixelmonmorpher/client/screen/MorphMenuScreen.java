@@ -1,7 +1,10 @@
 package com.guikipt.pixelmonmorpher.client.screen;
 
 import com.guikipt.pixelmonmorpher.client.morph.ClientMorphCache;
+import com.guikipt.pixelmonmorpher.client.morph.ClientMorphCatalog;
+import com.guikipt.pixelmonmorpher.morph.MorphCatalogView;
 import com.guikipt.pixelmonmorpher.morph.MorphData;
+import com.guikipt.pixelmonmorpher.morph.MorphService;
 import com.guikipt.pixelmonmorpher.network.MorphRequestPacket;
 import com.guikipt.pixelmonmorpher.network.NetworkHandler;
 import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
@@ -55,6 +58,9 @@ public class MorphMenuScreen extends Screen {
     private static final int HOLD_DELAY = 10; // Ticks before repeat starts
     private static final int HOLD_REPEAT_RATE = 3; // Ticks between repeats
 
+    // Morphs the server allows for this player, or null if it sent no catalog
+    private final MorphCatalogView catalog;
+
     // Search and selection
     private EditBox searchBox;
     private final List<Species> allSpecies;
@@ -92,9 +98,13 @@ public class MorphMenuScreen extends Screen {
     public MorphMenuScreen() {
         super(Component.literal("Morph Menu"));
 
-        // Load all species
+        // Load every species the server allows (all of them if it sent no catalog)
+        catalog = ClientMorphCatalog.get();
         allSpecies = new ArrayList<>();
         allSpecies.addAll(PixelmonSpecies.getAll());
+        if (catalog != null) {
+            allSpecies.removeIf(species -> !catalog.forms().containsKey(species.getDex()));
+        }
         allSpecies.sort(Comparator.comparing(Species::getName));
         filteredSpecies = new ArrayList<>(allSpecies);
 
@@ -282,17 +292,31 @@ public class MorphMenuScreen extends Screen {
         cachedPreviewEntity = null;
         previewTickCounter = 0;
 
-        // Get available forms
+        // Get available forms, leaving out any the server doesn't allow
         availableForms = new ArrayList<>();
-        availableForms.add("base");
-        species.getForms().forEach(form -> {
-            if (!form.getName().equalsIgnoreCase("base")) {
-                availableForms.add(form.getName());
+        var forms = species.getForms();
+        if (catalog == null || catalog.allows(species.getDex(), forms.indexOf(species.getDefaultForm()))) {
+            availableForms.add("base");
+        }
+        for (int i = 0; i < forms.size(); i++) {
+            String formName = forms.get(i).getName();
+            if (!formName.equalsIgnoreCase("base") && (catalog == null || catalog.allows(species.getDex(), i))) {
+                availableForms.add(formName);
             }
-        });
+        }
         selectedFormIndex = 0;
+        if (!availableForms.isEmpty() && !availableForms.get(0).equals("base")) {
+            // Base form not allowed: start on the first allowed form
+            changeForm(0);
+        }
+
+        updatePalettes();
+    }
 
-        // Get available palettes
+    /**
+     * Get available palettes; when the server restricts them, the allowed ones this form actually has
+     */
+    private void updatePalettes() {
         availablePalettes = new ArrayList<>();
         try {
             var palettes = currentPokemon.getPalette();
@@ -302,7 +326,19 @@ public class MorphMenuScreen extends Screen {
         } catch (Exception e) {
             availablePalettes.add("none");
         }
-        selectedPaletteIndex = 0;
+        if (catalog != null && !catalog.palettes().isEmpty()) {
+            String current = availablePalettes.isEmpty() ? "none" : availablePalettes.get(0);
+            var form = currentPokemon.getForm();
+            availablePalettes = new ArrayList<>();
+            for (String palette : catalog.palettes()) {
+                if (MorphService.knownPalette(form, palette)) {
+                    availablePalettes.add(palette);
+                }
+            }
+            selectedPaletteIndex = Math.max(0, availablePalettes.indexOf(current));
+        } else {
+            selectedPaletteIndex = 0;
+        }
     }
 
     private void changeForm(int direction) {
@@ -333,6 +369,11 @@ public class MorphMenuScreen extends Screen {
             cachedPreviewEntity = null;
             com.guikipt.pixelmonmorpher.PixelmonMorpher.LOGGER.info("Form changed to: base");
         }
+
+        // Forms can define their own palettes
+        if (currentPokemon != null) {
+            updatePalettes();
+        }
     }
 
     private void changePalette(int direction) {
@@ -401,9 +442,13 @@ public class MorphMenuScreen extends Screen {
     }
 
     private void changeSize(float delta) {
+        // The server's size range for this player, if it sent one
+        float minSize = catalog != null ? catalog.minSize() : 0.1f;
+        float maxSize = catalog != null ? catalog.maxSize() : 5.0f;
+
         pokemonSize += delta;
-        if (pokemonSize < 0.1f) pokemonSize = 0.1f;
-        if (pokemonSize > 5.0f) pokemonSize = 5.0f;
+        if (pokemonSize < minSize) pokemonSize = minSize;
+        if (pokemonSize > maxSize) pokemonSize = maxSize;
     }
 
     private void updateButtonStates() {
@@ -416,11 +461,11 @@ public class MorphMenuScreen extends Screen {
         prevPaletteButton.active = availablePalettes.size() > 1;
         nextPaletteButton.active = availablePalettes.size() > 1;
 
-        morphButton.active = currentPokemon != null;
+        morphButton.active = currentPokemon != null && !availableForms.isEmpty();
     }
 
     private void applyMorph() {
-        if (currentPokemon == null) return;
+        if (currentPokemon == null || availableForms.isEmpty()) return;
 
         // Send morph request to server
         NetworkHandler.sendToServer(new MorphRequestPacket(
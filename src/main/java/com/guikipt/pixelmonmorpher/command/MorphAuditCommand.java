@@ -0,0 +1,138 @@
+package com.guikipt.pixelmonmorpher.command;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.morph.MorphAuditLog;
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.IntegerArgumentType;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.GameProfileArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.players.GameProfileCache;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Command to search the morph audit log.
+ * Usage: /pokemorph audit <hours> [player <players>] [species <pokemon>]
+ * Shows the most recent matching morph changes from the last given number of hours.
+ */
+public class MorphAuditCommand {
+
+    // Most recent entries shown per query
+    private static final int MAX_SHOWN = 20;
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(
+            Commands.literal("pokemorph")
+                .then(Commands.literal("audit")
+                    .requires(source -> source.hasPermission(2)) // Require OP level 2
+                    .then(Commands.argument("hours", Objects.requireNonNull(IntegerArgumentType.integer(1, 24 * 365)))
+                        .executes(context -> executeAudit(context, false, false))
+                        .then(Commands.literal("player")
+                            .then(Commands.argument("players", Objects.requireNonNull(GameProfileArgument.gameProfile()))
+                                .executes(context -> executeAudit(context, true, false))
+                                .then(Commands.literal("species")
+                                    .then(Commands.argument("pokemon", Objects.requireNonNull(StringArgumentType.string()))
+                                        .suggests(PokeMorphCommand.POKEMON_SUGGESTIONS)
+                                        .executes(context -> executeAudit(context, true, true))
+                                    )
+                                )
+                            )
+                        )
+                        .then(Commands.literal("species")
+                            .then(Commands.argument("pokemon", Objects.requireNonNull(StringArgumentType.string()))
+                                .suggests(PokeMorphCommand.POKEMON_SUGGESTIONS)
+                                .executes(context -> executeAudit(context, false, true))
+                            )
+                        )
+                    )
+                )
+        );
+    }
+
+    private static int executeAudit(CommandContext<CommandSourceStack> context, boolean byPlayer, boolean bySpecies) throws CommandSyntaxException {
+        CommandSourceStack source = context.getSource();
+
+        Set<UUID> players = new HashSet<>();
+        if (byPlayer) {
+            for (GameProfile profile : GameProfileArgument.getGameProfiles(context, "players")) {
+                players.add(profile.getId());
+            }
+        }
+
+        int dex = -1;
+        if (bySpecies) {
+            String pokemonName = StringArgumentType.getString(context, "pokemon");
+            Species species = PixelmonSpecies.fromNameOrDex(pokemonName).orElse(null);
+            if (species == null) {
+                source.sendFailure(Objects.requireNonNull(Component.literal("§cUnknown Pokémon: " + pokemonName)));
+                return 0;
+            }
+            dex = species.getDex();
+        }
+
+        int hours = IntegerArgumentType.getInteger(context, "hours");
+        long now = System.currentTimeMillis();
+        MorphAuditLog.Query query = new MorphAuditLog.Query(now - TimeUnit.HOURS.toMillis(hours), now, Set.copyOf(players), dex);
+        Path dir = MorphAuditLog.auditDir(source.getServer());
+
+        // Segments are read off the server thread; results are reported back on it
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return MorphAuditLog.query(dir, query, MAX_SHOWN);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((result, error) -> source.getServer().execute(() -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                PixelmonMorpher.LOGGER.error("Morph audit query failed", cause);
+                source.sendFailure(Objects.requireNonNull(Component.literal("§cAudit query failed: " + cause.getMessage())));
+                return;
+            }
+            if (result.matched() == 0) {
+                source.sendFailure(Objects.requireNonNull(Component.literal("§cNo morph changes found in the last " + hours + " hours.")));
+                return;
+            }
+
+            SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+            StringBuilder text = new StringBuilder("§6" + result.matched() + " morph changes in the last " + hours + " hours");
+            if (result.matched() > result.latest().size()) {
+                text.append(", latest ").append(result.latest().size());
+            }
+            text.append(":");
+            for (MorphAuditLog.Entry entry : result.latest()) {
+                text.append("\n§7[").append(format.format(new Date(entry.time()))).append("] §e")
+                    .append(nameOf(source.getServer(), entry.playerId())).append(" §f").append(entry.describe())
+                    .append(" §7via ").append(entry.source().displayName());
+            }
+            final String message = text.toString();
+            source.sendSuccess(() -> Objects.requireNonNull(Component.literal(message)), false);
+        }));
+        return 1;
+    }
+
+    private static String nameOf(MinecraftServer server, UUID id) {
+        GameProfileCache cache = server.getProfileCache();
+        return cache != null ? cache.get(id).map(GameProfile::getName).orElse(id.toString()) : id.toString();
+    }
+}
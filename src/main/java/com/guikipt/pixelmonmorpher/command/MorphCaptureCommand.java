@@ -0,0 +1,120 @@
+package com.guikipt.pixelmonmorpher.command;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.network.MorphTrafficRecorder;
+import com.guikipt.pixelmonmorpher.network.MorphTrafficReplay;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.suggestion.SuggestionProvider;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Stream;
+
+/**
+ * Commands to capture morph traffic and replay a capture offline.
+ * Usage: /pokemorph capture start|stop, /pokemorph replay <file>
+ */
+public class MorphCaptureCommand {
+
+    private static final SuggestionProvider<CommandSourceStack> CAPTURE_SUGGESTIONS = (context, builder) -> {
+        Path dir = MorphTrafficRecorder.capturesDir(context.getSource().getServer());
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith(builder.getRemaining()))
+                    .sorted()
+                    .forEach(builder::suggest);
+            } catch (IOException e) {
+                // No suggestions
+            }
+        }
+        return builder.buildFuture();
+    };
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(
+            Commands.literal("pokemorph")
+                .then(Commands.literal("capture")
+                    .requires(source -> source.hasPermission(4)) // Writes to the world folder
+                    .then(Commands.literal("start").executes(MorphCaptureCommand::executeStart))
+                    .then(Commands.literal("stop").executes(MorphCaptureCommand::executeStop))
+                )
+                .then(Commands.literal("replay")
+                    .requires(source -> source.hasPermission(4))
+                    .then(Commands.argument("file", Objects.requireNonNull(StringArgumentType.string()))
+                        .suggests(CAPTURE_SUGGESTIONS)
+                        .executes(MorphCaptureCommand::executeReplay)
+                    )
+                )
+        );
+    }
+
+    private static int executeStart(CommandContext<CommandSourceStack> context) {
+        try {
+            Path file = MorphTrafficRecorder.start(context.getSource().getServer());
+            final String name = file.getFileName().toString();
+            context.getSource().sendSuccess(() -> Objects.requireNonNull(Component.literal("§aRecording morph traffic to " + name)), true);
+            return 1;
+        } catch (IOException e) {
+            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cCould not start capture: " + e.getMessage())));
+            return 0;
+        }
+    }
+
+    private static int executeStop(CommandContext<CommandSourceStack> context) {
+        long records = MorphTrafficRecorder.stop();
+        if (records < 0) {
+            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cNo morph capture is running.")));
+            return 0;
+        }
+        context.getSource().sendSuccess(() -> Objects.requireNonNull(Component.literal("§aMorph capture stopped, " + records + " records written.")), true);
+        return 1;
+    }
+
+    private static int executeReplay(CommandContext<CommandSourceStack> context) {
+        CommandSourceStack source = context.getSource();
+        String name = StringArgumentType.getString(context, "file");
+        Path dir = MorphTrafficRecorder.capturesDir(source.getServer());
+        Path file = dir.resolve(name).normalize();
+        if (!file.getParent().equals(dir.normalize()) || !Files.isRegularFile(file)) {
+            source.sendFailure(Objects.requireNonNull(Component.literal("§cNo capture named " + name)));
+            return 0;
+        }
+
+        // Full-speed replay runs off the server thread; results are reported back on it
+        source.sendSuccess(() -> Objects.requireNonNull(Component.literal("§7Replaying " + name + "...")), false);
+        CompletableFuture.supplyAsync(() -> {
+            try {
+                return MorphTrafficReplay.run(file);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((report, error) -> source.getServer().execute(() -> {
+            if (error != null) {
+                Throwable cause = error.getCause() != null ? error.getCause() : error;
+                PixelmonMorpher.LOGGER.error("Morph replay of {} failed", name, cause);
+                source.sendFailure(Objects.requireNonNull(Component.literal("§cReplay failed: " + cause.getMessage())));
+                return;
+            }
+            String text = String.format(
+                "§6Replay of %s§r\n§7records: §f%d syncs, %d requests (%d rejected, %d cold)\n§7applied: §f%d, deliveries: %d over %d ticks"
+                    + "\n§7throughput: §f%.0f packets/s, %.0f KiB/s\n§7latency: §fp50 %.1fµs, p90 %.1fµs, p99 %.1fµs, max %.1fµs",
+                name, report.syncs(), report.requests(), report.rejected(), report.coldRequests(),
+                report.applied(), report.deliveries(), report.ticks(),
+                report.packetsPerSecond(), report.bytesPerSecond() / 1024.0,
+                report.p50() / 1000.0, report.p90() / 1000.0, report.p99() / 1000.0, report.max() / 1000.0);
+            source.sendSuccess(() -> Objects.requireNonNull(Component.literal(text)), false);
+        }));
+        return 1;
+    }
+}
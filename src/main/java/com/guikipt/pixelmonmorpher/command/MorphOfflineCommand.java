@@ -0,0 +1,174 @@
+package com.guikipt.pixelmonmorpher.command;
+
+import com.guikipt.pixelmonmorpher.morph.MorphAuditLog;
+import com.guikipt.pixelmonmorpher.morph.MorphOfflineIndex;
+import com.guikipt.pixelmonmorpher.morph.MorphService;
+import com.mojang.authlib.GameProfile;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.arguments.StringArgumentType;
+import com.mojang.brigadier.context.CommandContext;
+import com.mojang.brigadier.exceptions.CommandSyntaxException;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.commands.arguments.GameProfileArgument;
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.players.GameProfileCache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Commands to query and edit the morphs of offline players through the offline morph index.
+ * Usage: /pokemorph offline get|clear <players>, /pokemorph offline find|clearspecies <pokemon>
+ * Online players are cleared immediately; offline players are cleared at their next login.
+ */
+public class MorphOfflineCommand {
+
+    // Players listed by find before the output is cut short
+    private static final int MAX_LISTED = 20;
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(
+            Commands.literal("pokemorph")
+                .then(Commands.literal("offline")
+                    .requires(source -> source.hasPermission(2)) // Require OP level 2
+                    .then(Commands.literal("get")
+                        .then(Commands.argument("players", Objects.requireNonNull(GameProfileArgument.gameProfile()))
+                            .executes(MorphOfflineCommand::executeGet)
+                        )
+                    )
+                    .then(Commands.literal("clear")
+                        .then(Commands.argument("players", Objects.requireNonNull(GameProfileArgument.gameProfile()))
+                            .executes(MorphOfflineCommand::executeClear)
+                        )
+                    )
+                    .then(Commands.literal("find")
+                        .then(Commands.argument("pokemon", Objects.requireNonNull(StringArgumentType.string()))
+                            .suggests(PokeMorphCommand.POKEMON_SUGGESTIONS)
+                            .executes(context -> executeSpecies(context, false))
+                        )
+                    )
+                    .then(Commands.literal("clearspecies")
+                        .then(Commands.argument("pokemon", Objects.requireNonNull(StringArgumentType.string()))
+                            .suggests(PokeMorphCommand.POKEMON_SUGGESTIONS)
+                            .executes(context -> executeSpecies(context, true))
+                        )
+                    )
+                )
+        );
+    }
+
+    private static int executeGet(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        if (!checkOpen(context)) {
+            return 0;
+        }
+        Collection<GameProfile> profiles = GameProfileArgument.getGameProfiles(context, "players");
+        for (GameProfile profile : profiles) {
+            MorphOfflineIndex.Entry entry = MorphOfflineIndex.get(profile.getId());
+            String text = entry == null
+                ? "§e" + profile.getName() + " §7is not morphed"
+                : "§e" + profile.getName() + " §7is morphed into §f" + entry.describe() + (entry.pendingClear() ? " §c(clear pending)" : "");
+            context.getSource().sendSuccess(() -> Objects.requireNonNull(Component.literal(text)), false);
+        }
+        return profiles.size();
+    }
+
+    private static int executeClear(CommandContext<CommandSourceStack> context) throws CommandSyntaxException {
+        if (!checkOpen(context)) {
+            return 0;
+        }
+        List<UUID> ids = new ArrayList<>();
+        for (GameProfile profile : GameProfileArgument.getGameProfiles(context, "players")) {
+            ids.add(profile.getId());
+        }
+        return clear(context, ids);
+    }
+
+    private static int executeSpecies(CommandContext<CommandSourceStack> context, boolean clear) {
+        if (!checkOpen(context)) {
+            return 0;
+        }
+        String pokemonName = StringArgumentType.getString(context, "pokemon");
+        Species species = PixelmonSpecies.fromNameOrDex(pokemonName).orElse(null);
+        if (species == null) {
+            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cUnknown Pokémon: " + pokemonName)));
+            return 0;
+        }
+
+        List<MorphOfflineIndex.Entry> entries = MorphOfflineIndex.findByDex(species.getDex());
+        if (entries.isEmpty()) {
+            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cNo players are morphed into " + species.getName() + ".")));
+            return 0;
+        }
+        if (clear) {
+            return clear(context, entries.stream().map(MorphOfflineIndex.Entry::playerId).toList());
+        }
+
+        MinecraftServer server = context.getSource().getServer();
+        StringBuilder text = new StringBuilder("§6" + entries.size() + " players morphed into " + species.getName() + ":");
+        for (int i = 0; i < Math.min(entries.size(), MAX_LISTED); i++) {
+            MorphOfflineIndex.Entry entry = entries.get(i);
+            text.append("\n§e").append(nameOf(server, entry.playerId())).append(" §7").append(entry.describe());
+            if (entry.pendingClear()) {
+                text.append(" §c(clear pending)");
+            }
+        }
+        if (entries.size() > MAX_LISTED) {
+            text.append("\n§7...and ").append(entries.size() - MAX_LISTED).append(" more");
+        }
+        final String message = text.toString();
+        context.getSource().sendSuccess(() -> Objects.requireNonNull(Component.literal(message)), false);
+        return entries.size();
+    }
+
+    /**
+     * Clear online players now and mark offline ones for their next login
+     */
+    private static int clear(CommandContext<CommandSourceStack> context, List<UUID> ids) {
+        MinecraftServer server = context.getSource().getServer();
+        List<ServerPlayer> online = new ArrayList<>();
+        int pending = 0;
+        for (UUID id : ids) {
+            ServerPlayer player = server.getPlayerList().getPlayer(id);
+            if (player != null) {
+                online.add(player);
+            } else if (MorphOfflineIndex.markPendingClear(id)) {
+                pending++;
+            }
+        }
+
+        List<ServerPlayer> cleared = MorphService.clear(online, MorphAuditLog.Source.COMMAND);
+        for (ServerPlayer player : cleared) {
+            player.sendSystemMessage(Objects.requireNonNull(Component.literal("§eYou have returned to your normal form!")));
+        }
+        if (cleared.isEmpty() && pending == 0) {
+            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cNone of those players are morphed!")));
+            return 0;
+        }
+
+        final String message = "§eUnmorphed " + cleared.size() + " online players; " + pending + " offline players will be unmorphed at their next login.";
+        context.getSource().sendSuccess(() -> Objects.requireNonNull(Component.literal(message)), true);
+        return cleared.size() + pending;
+    }
+
+    private static boolean checkOpen(CommandContext<CommandSourceStack> context) {
+        if (!MorphOfflineIndex.isOpen()) {
+            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cThe offline morph index is unavailable, check the server log.")));
+            return false;
+        }
+        return true;
+    }
+
+    private static String nameOf(MinecraftServer server, UUID id) {
+        GameProfileCache cache = server.getProfileCache();
+        return cache != null ? cache.get(id).map(GameProfile::getName).orElse(id.toString()) : id.toString();
+    }
+}
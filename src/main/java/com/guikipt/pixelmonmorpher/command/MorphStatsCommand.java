@@ -0,0 +1,38 @@
+package com.guikipt.pixelmonmorpher.command;
+
+import com.guikipt.pixelmonmorpher.morph.ActiveMorphRegistry;
+import com.guikipt.pixelmonmorpher.morph.MorphMetrics;
+import com.mojang.brigadier.CommandDispatcher;
+import com.mojang.brigadier.context.CommandContext;
+
+import net.minecraft.commands.CommandSourceStack;
+import net.minecraft.commands.Commands;
+import net.minecraft.network.chat.Component;
+
+import java.util.Objects;
+
+/**
+ * Command to show the morph pipeline counters.
+ * Usage: /pokemorph stats
+ */
+public class MorphStatsCommand {
+
+    public static void register(CommandDispatcher<CommandSourceStack> dispatcher) {
+        dispatcher.register(
+            Commands.literal("pokemorph")
+                .then(Commands.literal("stats")
+                    .requires(source -> source.hasPermission(2)) // Require OP level 2
+                    .executes(MorphStatsCommand::executeStats)
+                )
+        );
+    }
+
+    private static int executeStats(CommandContext<CommandSourceStack> context) {
+        StringBuilder message = new StringBuilder("§6Morph stats§r (morphed players: " + ActiveMorphRegistry.size() + ")");
+        MorphMetrics.snapshot().forEach((name, value) -> message.append("\n§7").append(name).append(": §f").append(value));
+
+        final String text = message.toString();
+        context.getSource().sendSuccess(() -> Objects.requireNonNull(Component.literal(text)), false);
+        return 1;
+    }
+}
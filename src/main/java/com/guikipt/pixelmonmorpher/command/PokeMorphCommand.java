@@ -1,18 +1,13 @@
 package com.guikipt.pixelmonmorpher.command;
 
-import com.guikipt.pixelmonmorpher.PixelmonMorpher;
-import com.guikipt.pixelmonmorpher.morph.MorphData;
-import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
-import com.guikipt.pixelmonmorpher.network.MorphDataSyncPacket;
-import com.guikipt.pixelmonmorpher.network.NetworkHandler;
+import com.guikipt.pixelmonmorpher.morph.MorphAuditLog;
+import com.guikipt.pixelmonmorpher.morph.MorphService;
+import com.guikipt.pixelmonmorpher.morph.MorphSpec;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.arguments.StringArgumentType;
 import com.mojang.brigadier.context.CommandContext;
 import com.mojang.brigadier.exceptions.CommandSyntaxException;
 import com.mojang.brigadier.suggestion.SuggestionProvider;
-import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
-import com.pixelmonmod.pixelmon.api.pokemon.PokemonFactory;
-import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
 import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
 
 import net.minecraft.commands.CommandSourceStack;
@@ -22,16 +17,18 @@ import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
 
 /**
- * Command to morph a player into a Pokémon.
- * Usage: /pokemorph <player> <pokemon> [shiny] [form:form_name]
+ * Command to morph one or more players into a Pokémon.
+ * Usage: /pokemorph <targets> <pokemon> [shiny] [form:form_name]
+ * Targets accept selectors such as @a or @a[team=red]; the morph is resolved once for all of them.
  */
 public class PokeMorphCommand {
 
-    private static final SuggestionProvider<CommandSourceStack> POKEMON_SUGGESTIONS = (context, builder) -> {
+    static final SuggestionProvider<CommandSourceStack> POKEMON_SUGGESTIONS = (context, builder) -> {
         String input = builder.getRemaining().toLowerCase();
         List<String> suggestions = new ArrayList<>();
 
@@ -52,7 +49,7 @@ public class PokeMorphCommand {
         dispatcher.register(
             Commands.literal("pokemorph")
                 // Admin commands require OP level 2
-                .then(Commands.argument("player", Objects.requireNonNull(EntityArgument.player()))
+                .then(Commands.argument("player", Objects.requireNonNull(EntityArgument.players()))
                     .requires(source -> source.hasPermission(2))
                     .then(Commands.argument("pokemon", Objects.requireNonNull(StringArgumentType.string()))
                         .suggests(POKEMON_SUGGESTIONS)
@@ -73,116 +70,41 @@ public class PokeMorphCommand {
 
     private static int executeMorph(CommandContext<CommandSourceStack> context, boolean shiny, String formName) throws CommandSyntaxException {
         if (context == null) return 0;
-        ServerPlayer targetPlayer = EntityArgument.getPlayer(context, "player");
+        Collection<ServerPlayer> targets = EntityArgument.getPlayers(context, "player");
         String pokemonName = StringArgumentType.getString(context, "pokemon");
 
-        // Get species from registry
-        Species species = PixelmonSpecies.fromNameOrDex(pokemonName).orElse(null);
-        if (species == null) {
-            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cUnknown Pokémon: " + pokemonName)));
-            return 0;
-        }
-
-        // Create Pokemon to get proper form and palette
-        Pokemon pokemon = PokemonFactory.create(species);
-        pokemon.setShiny(shiny);
-
-        // Handle form if specified
-        if (formName != null && !formName.isEmpty()) {
-            // Try to set the form
-            try {
-                // Pixelmon handles form names through the form system
-                var form = species.getForm(formName);
-                if (form != null) {
-                    pokemon.setForm(form);
-                } else {
-                    context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cUnknown form '" + formName + "' for " + species.getName())));
-                    return 0;
-                }
-            } catch (Exception e) {
-                context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cInvalid form: " + formName)));
-                return 0;
-            }
-        }
-
-        // Get dimensions from the Pokémon entity
-        float width = 0.6f;  // Default player width
-        float height = 1.8f; // Default player height
-
+        // Resolve once for every target
+        MorphService.ResolvedMorph morph;
         try {
-            var entity = pokemon.getOrSpawnPixelmon(null);
-            if (entity != null) {
-                width = entity.getBbWidth();
-                height = entity.getBbHeight();
-
-                PixelmonMorpher.LOGGER.info("Command morph - Entity dimensions for {}: width={}, height={}",
-                    pokemon.getSpecies().getName(), width, height);
-
-                // Clamp dimensions to reasonable values
-                width = Math.max(0.3f, Math.min(3.0f, width));
-                height = Math.max(0.5f, Math.min(3.0f, height));
-
-                PixelmonMorpher.LOGGER.info("Command morph - Clamped dimensions: width={}, height={}", width, height);
-            } else {
-                PixelmonMorpher.LOGGER.warn("Command morph - Failed to create entity for {}", pokemon.getSpecies().getName());
-            }
-        } catch (Exception e) {
-            PixelmonMorpher.LOGGER.error("Command morph - Error getting dimensions", e);
-            // Use defaults if entity creation fails
-        }
-
-        // Get the actual form name
-        String actualFormName = pokemon.getForm().getName();
-        PixelmonMorpher.LOGGER.info("Command morph - Form name: '{}' (requested: '{}')", actualFormName, formName);
-
-        // Create morph data with the actual form name
-        MorphData morphData = new MorphData(
-            pokemon.getSpecies().getName(),
-            actualFormName, // Use the actual form name from the pokemon
-            pokemon.isShiny(),
-            pokemon.getPalette().getName(),
-            1.0f,
-            width,
-            height
-        );
-
-        // Apply the morph
-        PlayerMorphAttachment.setMorphData(targetPlayer, morphData);
-
-        // CRITICAL: Force dimensions update immediately
-        targetPlayer.refreshDimensions();
-
-        // Sync to all clients
-        NetworkHandler.sendToAll(new MorphDataSyncPacket(targetPlayer.getUUID(), morphData));
-
-        // Force another dimension refresh after a small delay to ensure it takes effect
-        // This is needed because sometimes the first refresh happens before the data is fully synced
-        var server = targetPlayer.getServer();
-        if (server != null) {
-            server.execute(targetPlayer::refreshDimensions);
+            morph = MorphService.resolve(MorphSpec.of(pokemonName, formName, shiny), true);
+        } catch (MorphService.MorphException e) {
+            context.getSource().sendFailure(Objects.requireNonNull(Component.literal(Objects.requireNonNull(e.getMessage()))));
+            return 0;
         }
 
-        // Build display name
-        String displayName = pokemon.getSpecies().getName();
-        if (shiny) {
-            displayName = "Shiny " + displayName;
-        }
-        if (formName != null && !formName.isEmpty()) {
-            displayName += " (" + formName + ")";
+        // Apply to every target the morph policy allows and flush one sync; each rejected target is told why
+        List<ServerPlayer> morphed = MorphService.apply(targets, morph, MorphAuditLog.Source.COMMAND);
+        if (morphed.isEmpty()) {
+            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§c" + morph.displayName() + " is not allowed as a morph for any target.")));
+            return 0;
         }
 
         // Create final variables for lambda
-        final String finalDisplayName = displayName;
-        final String playerName = targetPlayer.getName().getString();
+        final String displayName = morph.displayName();
+        final String targetName = morphed.size() == 1
+            ? morphed.get(0).getName().getString()
+            : morphed.size() + " players";
 
         // Send success messages
         context.getSource().sendSuccess(
-            () -> Objects.requireNonNull(Component.literal("§aMorphed " + playerName + " into " + finalDisplayName + "!")),
+            () -> Objects.requireNonNull(Component.literal("§aMorphed " + targetName + " into " + displayName + "!")),
             true
         );
 
-        targetPlayer.sendSystemMessage(Objects.requireNonNull(Component.literal("§aYou have been morphed into " + finalDisplayName + "!")));
+        for (ServerPlayer target : morphed) {
+            target.sendSystemMessage(Objects.requireNonNull(Component.literal("§aYou have been morphed into " + displayName + "!")));
+        }
 
-        return 1;
+        return morphed.size();
     }
 }
@@ -1,9 +1,7 @@
 package com.guikipt.pixelmonmorpher.command;
 
-import com.guikipt.pixelmonmorpher.morph.MorphData;
-import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
-import com.guikipt.pixelmonmorpher.network.MorphDataSyncPacket;
-import com.guikipt.pixelmonmorpher.network.NetworkHandler;
+import com.guikipt.pixelmonmorpher.morph.MorphAuditLog;
+import com.guikipt.pixelmonmorpher.morph.MorphService;
 import com.mojang.brigadier.CommandDispatcher;
 import com.mojang.brigadier.context.CommandContext;
 
@@ -13,12 +11,14 @@ import net.minecraft.commands.arguments.EntityArgument;
 import net.minecraft.network.chat.Component;
 import net.minecraft.server.level.ServerPlayer;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Objects;
 
 /**
- * Command to unmorph a player back to normal.
- * Usage: /pokeunmorph [player]
- * If no player is specified, unmorphs the command executor.
+ * Command to unmorph one or more players back to normal.
+ * Usage: /pokeunmorph [targets]
+ * If no target is specified, unmorphs the command executor. Targets accept selectors such as @a.
  */
 public class PokeUnmorphCommand {
 
@@ -27,51 +27,45 @@ public class PokeUnmorphCommand {
             Commands.literal("pokeunmorph")
                 .requires(source -> source.hasPermission(2)) // Require OP level 2
                 .executes(context -> executeUnmorph(Objects.requireNonNull(context), null)) // Unmorph self
-                .then(Commands.argument("player", Objects.requireNonNull(EntityArgument.player()))
-                    .executes(context -> executeUnmorph(Objects.requireNonNull(context), EntityArgument.getPlayer(context, "player")))
+                .then(Commands.argument("player", Objects.requireNonNull(EntityArgument.players()))
+                    .executes(context -> executeUnmorph(Objects.requireNonNull(context), EntityArgument.getPlayers(context, "player")))
                 )
         );
     }
 
-    private static int executeUnmorph(CommandContext<CommandSourceStack> context, ServerPlayer targetPlayer) {
+    private static int executeUnmorph(CommandContext<CommandSourceStack> context, Collection<ServerPlayer> targets) {
         // If no target specified, try to unmorph the command source
-        if (targetPlayer == null) {
+        if (targets == null) {
             if (context.getSource().getEntity() instanceof ServerPlayer player) {
-                targetPlayer = player;
+                targets = List.of(player);
             } else {
                 context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§cYou must specify a player to unmorph!")));
                 return 0;
             }
         }
 
-        // Check if player is currently morphed
-        MorphData currentMorph = PlayerMorphAttachment.getMorphData(targetPlayer);
-        if (!currentMorph.isMorphed()) {
-            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§c" + targetPlayer.getName().getString() + " is not currently morphed!")));
+        // Clear every morphed target and flush one sync
+        List<ServerPlayer> cleared = MorphService.clear(targets, MorphAuditLog.Source.COMMAND);
+        if (cleared.isEmpty()) {
+            String name = targets.size() == 1 ? targets.iterator().next().getName().getString() : "None of the targets";
+            String verb = targets.size() == 1 ? " is" : " are";
+            context.getSource().sendFailure(Objects.requireNonNull(Component.literal("§c" + name + verb + " not currently morphed!")));
             return 0;
         }
 
-        // Clear the morph
-        PlayerMorphAttachment.clearMorph(targetPlayer);
-
-        // CRITICAL: Force dimensions back to normal
-        targetPlayer.refreshDimensions();
-
-        // Sync to all clients
-        MorphData emptyMorph = new MorphData();
-        NetworkHandler.sendToAll(new MorphDataSyncPacket(targetPlayer.getUUID(), emptyMorph));
-
         // Create final variable for lambda
-        final String playerName = targetPlayer.getName().getString();
+        final String playerName = cleared.size() == 1 ? cleared.get(0).getName().getString() : cleared.size() + " players";
 
         // Send success messages
         context.getSource().sendSuccess(
-            () -> Objects.requireNonNull(Component.literal("§e" + playerName + " has been unmorphed!")),
+            () -> Objects.requireNonNull(Component.literal("§e" + playerName + (cleared.size() == 1 ? " has" : " have") + " been unmorphed!")),
             true
         );
 
-        targetPlayer.sendSystemMessage(Objects.requireNonNull(Component.literal("§eYou have returned to your normal form!")));
+        for (ServerPlayer player : cleared) {
+            player.sendSystemMessage(Objects.requireNonNull(Component.literal("§eYou have returned to your normal form!")));
+        }
 
-        return 1;
+        return cleared.size();
     }
 }
@@ -1,234 +1,341 @@
 package com.guikipt.pixelmonmorpher.event;
 
 import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.morph.ActiveMorphRegistry;
+import com.guikipt.pixelmonmorpher.morph.MorphAuditLog;
 import com.guikipt.pixelmonmorpher.morph.MorphData;
+import com.guikipt.pixelmonmorpher.morph.MorphService;
+import com.guikipt.pixelmonmorpher.morph.MorphTraitRules;
+import com.guikipt.pixelmonmorpher.morph.MorphTraitTable;
+import com.guikipt.pixelmonmorpher.morph.MorphTraits;
 import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
 import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
 import com.pixelmonmod.pixelmon.api.pokemon.PokemonFactory;
 import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Stats;
 import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+import net.minecraft.core.Holder;
+import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
-import net.minecraft.world.entity.player.Player;
+import net.minecraft.tags.DamageTypeTags;
+import net.minecraft.world.effect.MobEffect;
+import net.minecraft.world.effect.MobEffectInstance;
+import net.minecraft.world.effect.MobEffects;
+import net.minecraft.world.entity.ai.attributes.Attribute;
+import net.minecraft.world.entity.ai.attributes.AttributeInstance;
+import net.minecraft.world.entity.ai.attributes.AttributeModifier;
+import net.minecraft.world.entity.ai.attributes.Attributes;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.entity.living.LivingFallEvent;
-import net.neoforged.neoforge.event.tick.PlayerTickEvent;
+import net.neoforged.neoforge.event.entity.living.LivingIncomingDamageEvent;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
 
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.List;
+import java.util.Objects;
 
 /**
  * Handles special abilities for morphed players:
  * - Flight ability for flying Pokémon (even in survival)
  * - No fall damage for flying Pokémon
- * - Water breathing for water Pokémon
+ * - Datapack traits (see {@link MorphTraitRules}): water breathing, fire immunity, night vision,
+ *   fall immunity and speed/jump modifiers
+ * Flight and modifiers are reconciled when a morph or game mode changes; only morphed players are visited each tick.
  */
 @EventBusSubscriber(modid = PixelmonMorpher.MODID)
 public class MorphAbilityHandler {
 
-    private static final Map<String, Boolean> FLY_CACHE = new ConcurrentHashMap<>();
-    private static final Map<String, Boolean> WATER_CACHE = new ConcurrentHashMap<>();
+    private static final ResourceLocation SPEED_MODIFIER_ID = ResourceLocation.fromNamespaceAndPath(PixelmonMorpher.MODID, "morph_speed");
+    private static final ResourceLocation JUMP_MODIFIER_ID = ResourceLocation.fromNamespaceAndPath(PixelmonMorpher.MODID, "morph_jump");
 
-    @SuppressWarnings("deprecation")
     @SubscribeEvent
-    public static void onPlayerTick(PlayerTickEvent.Post event) {
-        Player player = event.getEntity();
+    public static void onServerTick(ServerTickEvent.Post event) {
+        // Grant or revoke abilities once for players whose morph or game mode changed this tick
+        ActiveMorphRegistry.drainPending(MorphAbilityHandler::reconcileAbilities);
+
+        // Only morphed players get per-tick work
+        for (ServerPlayer player : ActiveMorphRegistry.active()) {
+            MorphTraits traits = PlayerMorphAttachment.getTraits(player);
+
+            // Handle water breathing
+            if (traits.waterBreathing() && player.isUnderWater()) {
+                // Set air supply to max to prevent drowning
+                player.setAirSupply(player.getMaxAirSupply());
+            }
+
+            // Night vision is an effect, so restore it if milk or death removed it
+            if (traits.nightVision() && !player.hasEffect(MobEffects.NIGHT_VISION)) {
+                player.addEffect(morphEffect(MobEffects.NIGHT_VISION));
+            }
+        }
+    }
 
-        // Only handle server-side for ServerPlayer
-        if (!(player instanceof ServerPlayer serverPlayer)) {
+    @SubscribeEvent
+    public static void onLivingFall(LivingFallEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) {
             return;
         }
 
         // Get morph data
-        MorphData morphData = PlayerMorphAttachment.getMorphData(serverPlayer);
+        MorphData morphData = PlayerMorphAttachment.getMorphData(player);
         if (!morphData.isMorphed()) {
-            // Not morphed - remove flight if in survival
-            if (!serverPlayer.isCreative() && !serverPlayer.isSpectator()) {
-                if (serverPlayer.getAbilities().mayfly && !serverPlayer.getAbilities().instabuild) {
-                    serverPlayer.getAbilities().mayfly = false;
-                    serverPlayer.getAbilities().flying = false;
-                    serverPlayer.onUpdateAbilities();
-                }
-            }
             return;
         }
 
-        // Get Pokémon species to check abilities
-        Species species = PixelmonSpecies.fromNameOrDex(morphData.getSpeciesName()).orElse(null);
-        if (species == null) {
+        // Cancel fall damage for flying Pokémon and fall-immune morphs
+        if (PlayerMorphAttachment.getTraits(player).fallImmune()) {
+            event.setCanceled(true);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onIncomingDamage(LivingIncomingDamageEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player
+            && event.getSource().is(DamageTypeTags.IS_FIRE)
+            && PlayerMorphAttachment.getTraits(player).fireImmune()) {
+            event.setCanceled(true);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player)) {
             return;
         }
 
-        // Create a temporary Pokemon to check its properties
-        Pokemon pokemon = PokemonFactory.create(species);
-        pokemon.setShiny(morphData.isShiny());
+        // Trait profiles are not saved, rebuild it once for a persisted morph
+        MorphData morphData = PlayerMorphAttachment.getMorphData(player);
+        if (morphData.isMorphed()) {
+            PlayerMorphAttachment.setTraits(player, resolveTraits(morphData));
+        }
+        ActiveMorphRegistry.update(player, morphData.isMorphed());
+    }
 
-        // Check if Pokémon can fly
-        boolean canFly = canPokemonFly(pokemon);
-
-        // Flight logging disabled
-        // boolean currentCanFly = serverPlayer.getAbilities().mayfly;
-        // if (canFly != currentCanFly && !serverPlayer.isCreative() && !serverPlayer.isSpectator()) {
-        //     PixelmonMorpher.LOGGER.info("Flight state changing for {}: canFly={}, currentMayfly={}, species={}",
-        //         serverPlayer.getName().getString(), canFly, currentCanFly, morphData.getSpeciesName());
-        // }
-
-        // Debug logging disabled
-        // if (serverPlayer.tickCount % 100 == 0) { // Log every 5 seconds
-        //     PixelmonMorpher.LOGGER.debug("Morph check for {}: species={}, canFly={}, isCreative={}, mayfly={}",
-        //         serverPlayer.getName().getString(), morphData.getSpeciesName(), canFly,
-        //         serverPlayer.isCreative(), serverPlayer.getAbilities().mayfly);
-        // }
-
-        // Grant flight ability in survival if Pokémon can fly
-        if (canFly && !serverPlayer.isCreative() && !serverPlayer.isSpectator()) {
-            if (!serverPlayer.getAbilities().mayfly) {
-                serverPlayer.getAbilities().mayfly = true;
-                serverPlayer.onUpdateAbilities();
-                // PixelmonMorpher.LOGGER.info("Granted flight ability to {} (morphed as {})",
-                //     serverPlayer.getName().getString(), morphData.getSpeciesName());
-            }
-        } else if (!canFly && !serverPlayer.isCreative() && !serverPlayer.isSpectator()) {
-            // Remove flight if Pokémon can't fly and player isn't in creative
-            if (serverPlayer.getAbilities().mayfly && !serverPlayer.getAbilities().instabuild) {
-                serverPlayer.getAbilities().mayfly = false;
-                serverPlayer.getAbilities().flying = false;
-                serverPlayer.onUpdateAbilities();
-                // PixelmonMorpher.LOGGER.info("Removed flight ability from {} (morphed as non-flying Pokémon)",
-                //     serverPlayer.getName().getString());
-            }
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ActiveMorphRegistry.remove(player);
         }
+    }
 
-        // Handle water breathing for water Pokémon
-        boolean isWaterType = isWaterPokemon(pokemon);
-        if (isWaterType && serverPlayer.isUnderWater()) {
-            // Set air supply to max to prevent drowning
-            serverPlayer.setAirSupply(serverPlayer.getMaxAirSupply());
+    @SubscribeEvent
+    public static void onPlayerClone(PlayerEvent.Clone event) {
+        // The morph attachment is not copied on death; carry it over so the respawn handler can clear it
+        // through the normal pipeline instead of it vanishing without a sync, index update or audit entry
+        if (event.isWasDeath() && event.getOriginal() instanceof ServerPlayer original
+                && event.getEntity() instanceof ServerPlayer player && PlayerMorphAttachment.isMorphed(original)) {
+            PlayerMorphAttachment.setMorphData(player, PlayerMorphAttachment.getMorphData(original));
         }
     }
 
     @SubscribeEvent
-    public static void onLivingFall(LivingFallEvent event) {
+    public static void onPlayerRespawn(PlayerEvent.PlayerRespawnEvent event) {
         if (!(event.getEntity() instanceof ServerPlayer player)) {
             return;
         }
 
-        // Get morph data
+        // Dying ends the morph
+        if (!event.isEndConquered()) {
+            MorphService.clear(List.of(player), MorphAuditLog.Source.DEATH);
+            return;
+        }
+
+        // Returning from the End creates a new player entity that keeps the morph but not the unsaved trait profile
         MorphData morphData = PlayerMorphAttachment.getMorphData(player);
-        if (!morphData.isMorphed()) {
+        if (morphData.isMorphed()) {
+            PlayerMorphAttachment.setTraits(player, resolveTraits(morphData));
+        }
+        ActiveMorphRegistry.update(player, morphData.isMorphed());
+    }
+
+    @SubscribeEvent
+    public static void onGameModeChange(PlayerEvent.PlayerChangeGameModeEvent event) {
+        // Fired before the new mode applies its own abilities, so reconcile at the end of the tick
+        if (event.getEntity() instanceof ServerPlayer player) {
+            ActiveMorphRegistry.markDirty(player);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        ActiveMorphRegistry.clear();
+    }
+
+    /**
+     * Apply the current trait profile's modifiers and effects, then reconcile flight
+     */
+    private static void reconcileAbilities(ServerPlayer player) {
+        if (player.isRemoved()) {
             return;
         }
 
-        // Get Pokémon species
-        Species species = PixelmonSpecies.fromNameOrDex(morphData.getSpeciesName()).orElse(null);
-        if (species == null) {
+        MorphTraits traits = PlayerMorphAttachment.isMorphed(player) ? PlayerMorphAttachment.getTraits(player) : MorphTraits.NONE;
+        applyModifier(player, Attributes.MOVEMENT_SPEED, SPEED_MODIFIER_ID, traits.speedBonus());
+        applyModifier(player, Attributes.JUMP_STRENGTH, JUMP_MODIFIER_ID, traits.jumpBonus());
+        if (traits.nightVision()) {
+            player.addEffect(morphEffect(MobEffects.NIGHT_VISION));
+        } else {
+            removeMorphEffect(player, MobEffects.NIGHT_VISION);
+        }
+
+        reconcileFlight(player, traits);
+    }
+
+    /**
+     * Grant flight to survival players morphed into a flying Pokémon, and revoke it otherwise
+     */
+    private static void reconcileFlight(ServerPlayer player, MorphTraits traits) {
+        if (player.isCreative() || player.isSpectator()) {
             return;
         }
 
-        // Create a temporary Pokemon to check if it can fly
-        Pokemon pokemon = PokemonFactory.create(species);
-        pokemon.setShiny(morphData.isShiny());
+        boolean canFly = traits.flightCapable();
+        if (canFly) {
+            // Grant flight ability in survival if Pokémon can fly
+            if (!player.getAbilities().mayfly) {
+                player.getAbilities().mayfly = true;
+                player.onUpdateAbilities();
+            }
+        } else if (player.getAbilities().mayfly && !player.getAbilities().instabuild) {
+            // Remove flight if Pokémon can't fly (or the player unmorphed) and player isn't in creative
+            player.getAbilities().mayfly = false;
+            player.getAbilities().flying = false;
+            player.onUpdateAbilities();
+        }
+    }
 
-        // Cancel fall damage for flying Pokémon
-        if (canPokemonFly(pokemon)) {
-            event.setCanceled(true);
+    /**
+     * Replace the morph's transient modifier on an attribute; a zero bonus just removes it
+     */
+    private static void applyModifier(ServerPlayer player, Holder<Attribute> attribute, ResourceLocation id, float bonus) {
+        AttributeInstance instance = player.getAttribute(attribute);
+        if (instance == null) {
+            return;
+        }
+        instance.removeModifier(id);
+        if (bonus != 0.0f) {
+            instance.addTransientModifier(new AttributeModifier(id, bonus, AttributeModifier.Operation.ADD_MULTIPLIED_BASE));
         }
     }
 
     /**
-     * Check if a Pokémon can fly based on its properties
-     * Uses Pixelmon's built-in flying detection
+     * Morph effects are infinite, ambient and hidden, which is how they are told apart from potions
      */
-    private static boolean canPokemonFly(Pokemon pokemon) {
-        String cacheKey = getAbilityCacheKey(pokemon);
-        Boolean cached = FLY_CACHE.get(cacheKey);
-        if (cached != null) {
-            return cached;
+    private static MobEffectInstance morphEffect(Holder<MobEffect> effect) {
+        return new MobEffectInstance(effect, MobEffectInstance.INFINITE_DURATION, 0, true, false);
+    }
+
+    private static void removeMorphEffect(ServerPlayer player, Holder<MobEffect> effect) {
+        MobEffectInstance current = player.getEffect(effect);
+        if (current != null && current.isInfiniteDuration() && current.isAmbient()) {
+            player.removeEffect(effect);
         }
+    }
 
-        try {
-            // Check if the Pokémon entity can fly/levitate using Pixelmon's API
-            var entity = pokemon.getOrCreatePixelmon(null);
-            if (entity != null) {
-                // Check if entity has flying or hovering capability
-                boolean canFly = entity.canFly() || entity.isHovering();
-
-                // Ensure temporary entity is cleaned up if it was instantiated
-                try {
-                    entity.discard();
-                } catch (Exception ignored) {
-                }
+    /**
+     * Resolve the trait profile for stored morph data.
+     * Recreates the Pokémon, so only call this when a morph is applied or restored.
+     */
+    public static MorphTraits resolveTraits(MorphData morphData) {
+        Species species = PixelmonSpecies.fromNameOrDex(morphData.getSpeciesName()).orElse(null);
+        if (species == null) {
+            return MorphTraits.NONE;
+        }
 
-                FLY_CACHE.put(cacheKey, canFly);
+        Pokemon pokemon = PokemonFactory.create(species);
+        pokemon.setShiny(morphData.isShiny());
 
-                return canFly;
+        String formName = morphData.getFormName();
+        if (formName != null && !formName.isEmpty() && !formName.equalsIgnoreCase("base")) {
+            try {
+                var form = species.getForm(formName);
+                if (form != null) {
+                    pokemon.setForm(form);
+                }
+            } catch (Exception e) {
+                // Keep base form
             }
-
-            FLY_CACHE.put(cacheKey, false);
-            return false;
-        } catch (Exception e) {
-            PixelmonMorpher.LOGGER.error("Error checking if Pokemon can fly", e);
-            return false;
         }
+
+        return resolveTraits(pokemon);
     }
 
     /**
-     * Check if a Pokémon is a water type using Pixelmon's API
+     * Resolve the trait profile for a Pokémon, cached per species and form
      */
-    private static boolean isWaterPokemon(Pokemon pokemon) {
-        String cacheKey = getAbilityCacheKey(pokemon);
-        Boolean cached = WATER_CACHE.get(cacheKey);
+    public static MorphTraits resolveTraits(Pokemon pokemon) {
+        Species species = pokemon.getSpecies();
+        Stats form = pokemon.getForm();
+        if (species == null || form == null) {
+            return MorphTraits.NONE;
+        }
+
+        int key = MorphTraitTable.keyOf(species, form);
+        MorphTraits cached = MorphTraitTable.traits(key);
         if (cached != null) {
             return cached;
         }
 
-        try {
-            var form = pokemon.getForm();
-            if (form != null) {
-                var types = form.getTypes();
-                if (!types.isEmpty()) {
-                    // Use the Holder's key to get type name instead of toString() to avoid StackOverflowError
-                    var type1Holder = types.get(0);
-                    var type2Holder = types.size() > 1 ? types.get(1) : null;
-
-                    // Safely get type names from holder keys
-                    String type1Name = null;
-                    if (type1Holder.getKey() != null) {
-                        type1Name = type1Holder.getKey().location().getPath().toLowerCase();
+        if (!MorphTraitTable.isResolved(key, MorphTraitTable.RESOLVED_FLIGHT)) {
+            boolean canFly = false;
+            boolean hovers = false;
+            try {
+                // Check if the Pokémon entity can fly/levitate using Pixelmon's API
+                var entity = pokemon.getOrCreatePixelmon(null);
+                if (entity != null) {
+                    canFly = entity.canFly();
+                    hovers = entity.isHovering();
+
+                    // Ensure temporary entity is cleaned up if it was instantiated
+                    try {
+                        entity.discard();
+                    } catch (Exception ignored) {
                     }
+                }
+            } catch (Exception e) {
+                PixelmonMorpher.LOGGER.error("Error checking if Pokemon can fly", e);
+            }
+            MorphTraitTable.putFlight(key, canFly, hovers);
+        }
 
-                    String type2Name = null;
-                    if (type2Holder != null && type2Holder.getKey() != null) {
-                        type2Name = type2Holder.getKey().location().getPath().toLowerCase();
-                    }
+        if (!MorphTraitTable.isResolved(key, MorphTraitTable.RESOLVED_WATER)) {
+            MorphTraitTable.putWater(key, isWaterForm(form));
+        }
 
-                    boolean isWater = type1Name != null && type1Name.contains("water");
-                    if (!isWater && type2Name != null) {
-                        isWater = type2Name.contains("water");
-                    }
+        if (!MorphTraitTable.isResolved(key, MorphTraitTable.RESOLVED_RULES)) {
+            MorphTraitRules.compile(key, species, form);
+        }
 
-                    WATER_CACHE.put(cacheKey, isWater);
-                    return isWater;
-                }
-            }
+        return Objects.requireNonNull(MorphTraitTable.traits(key));
+    }
 
-            WATER_CACHE.put(cacheKey, false);
-            return false;
-        } catch (Exception e) {
-            PixelmonMorpher.LOGGER.error("Error checking if Pokemon is water type", e);
-            return false;
+    /**
+     * Store a precomputed water typing for a species/form, unless it is already resolved
+     */
+    public static void prewarmWaterType(Species species, Stats form, boolean waterType) {
+        int key = MorphTraitTable.keyOf(species, form);
+        if (!MorphTraitTable.isResolved(key, MorphTraitTable.RESOLVED_WATER)) {
+            MorphTraitTable.putWater(key, waterType);
         }
     }
 
-    private static String getAbilityCacheKey(Pokemon pokemon) {
-        String species = pokemon.getSpecies() != null ? pokemon.getSpecies().getName() : "unknown";
-        String formName = "base";
+    /**
+     * Check if a Pokémon form is a water type using Pixelmon's API.
+     * Only reads form data, so it is safe to call off the main thread.
+     */
+    public static boolean isWaterForm(Stats form) {
         try {
-            if (pokemon.getForm() != null && pokemon.getForm().getName() != null) {
-                formName = pokemon.getForm().getName();
+            for (String type : MorphTraitRules.typeNames(form)) {
+                if (type.contains("water")) {
+                    return true;
+                }
             }
-        } catch (Exception ignored) {
+            return false;
+        } catch (Exception e) {
+            PixelmonMorpher.LOGGER.error("Error checking if Pokemon is water type", e);
+            return false;
         }
-        return species.toLowerCase() + ":" + formName.toLowerCase();
     }
 }
@@ -1,17 +1,27 @@
 package com.guikipt.pixelmonmorpher.event;
 
 import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.morph.MorphRateLimiter;
+import com.guikipt.pixelmonmorpher.morph.MorphTrackingIndex;
 import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
-import com.guikipt.pixelmonmorpher.network.MorphDataSyncPacket;
+import com.guikipt.pixelmonmorpher.network.MorphRequestPacket;
+import com.guikipt.pixelmonmorpher.network.MorphSnapshotPacket;
+import com.guikipt.pixelmonmorpher.network.MorphSyncQueue;
+import com.guikipt.pixelmonmorpher.network.MorphSyncTracker;
+import com.guikipt.pixelmonmorpher.network.MorphTrafficRecorder;
 import com.guikipt.pixelmonmorpher.network.NetworkHandler;
 
 import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+import java.util.List;
 
 /**
- * Syncs morph data to clients when players join or start tracking another player.
+ * Syncs morph data to clients when players join, change dimension or start tracking another player,
+ * and keeps the tracking index used to scope live morph updates.
  */
 @EventBusSubscriber(modid = PixelmonMorpher.MODID)
 public class MorphSyncHandler {
@@ -21,8 +31,33 @@ public class MorphSyncHandler {
         if (!(event.getEntity() instanceof ServerPlayer player)) {
             return;
         }
-        var data = PlayerMorphAttachment.getMorphData(player);
-        NetworkHandler.sendToPlayer(new MorphDataSyncPacket(player.getUUID(), data), player);
+        // One compressed snapshot instead of a sync per tracked player
+        sendSnapshot(player);
+    }
+
+    @SubscribeEvent
+    public static void onChangedDimension(PlayerEvent.PlayerChangedDimensionEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            sendSnapshot(player);
+        }
+    }
+
+    private static void sendSnapshot(ServerPlayer player) {
+        MorphSnapshotPacket snapshot = MorphSyncTracker.snapshot(player);
+        if (MorphTrafficRecorder.isRecording()) {
+            MorphTrafficRecorder.recordSyncs(player, snapshot.entries());
+        }
+        NetworkHandler.sendToPlayer(snapshot, player);
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            MorphTrackingIndex.remove(player);
+            MorphSyncTracker.remove(player);
+            MorphRateLimiter.remove(player.getUUID());
+            MorphRequestPacket.forget(player.getUUID());
+        }
     }
 
     @SubscribeEvent
@@ -33,7 +68,41 @@ public class MorphSyncHandler {
         if (!(event.getTarget() instanceof ServerPlayer target)) {
             return;
         }
-        var data = PlayerMorphAttachment.getMorphData(target);
-        NetworkHandler.sendToPlayer(new MorphDataSyncPacket(target.getUUID(), data), watcher);
+        MorphTrackingIndex.startTracking(target, watcher);
+
+        // A pending change goes out with the flush under a new epoch, and the watcher is already in
+        // the target's watchers; sending now would carry an epoch the client already holds and be dropped as stale
+        if (MorphSyncQueue.isQueued(target)) {
+            return;
+        }
+
+        // Late trackers missed earlier updates, so send the current state unless a snapshot already covered it
+        int epoch = MorphSyncTracker.currentEpoch(target);
+        if (MorphSyncTracker.isCurrent(watcher, target, epoch)) {
+            return;
+        }
+        var packet = MorphSyncTracker.packetFor(watcher, target, PlayerMorphAttachment.getMorphData(target), epoch);
+        if (packet != null) {
+            if (MorphTrafficRecorder.isRecording()) {
+                MorphTrafficRecorder.recordSyncs(watcher, List.of(packet));
+            }
+            NetworkHandler.sendToPlayer(packet, watcher);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onStopTracking(PlayerEvent.StopTracking event) {
+        if (event.getEntity() instanceof ServerPlayer watcher && event.getTarget() instanceof ServerPlayer target) {
+            MorphTrackingIndex.stopTracking(target, watcher);
+            MorphSyncTracker.forget(watcher, target);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        MorphTrackingIndex.clear();
+        MorphSyncTracker.clear();
+        MorphRateLimiter.clear();
+        MorphRequestPacket.clear();
     }
 }
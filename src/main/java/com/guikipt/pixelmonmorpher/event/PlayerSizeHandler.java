@@ -5,7 +5,6 @@ import com.guikipt.pixelmonmorpher.morph.MorphData;
 import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
 
 import net.minecraft.world.entity.EntityDimensions;
-import net.minecraft.world.entity.Pose;
 import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.entity.EntityEvent;
@@ -29,25 +28,8 @@ public class PlayerSizeHandler {
             return;
         }
 
-        // Get Pokémon dimensions
-        float width = morphData.getWidth();
-        float height = morphData.getHeight();
-
-        // Adjust dimensions based on pose
-        Pose pose = event.getPose();
-        EntityDimensions newDimensions = switch (pose) {
-            case SWIMMING, FALL_FLYING, SPIN_ATTACK ->
-                // For swimming/flying poses, make it flatter
-                EntityDimensions.scalable(width, Math.max(0.6f, height * 0.5f));
-
-            case CROUCHING ->
-                // For crouching, reduce height by 15%
-                EntityDimensions.scalable(width, height * 0.85f);
-
-            default ->
-                // Use full Pokémon dimensions
-                EntityDimensions.scalable(width, height);
-        };
+        // Pose table was computed once when the morph was created
+        EntityDimensions newDimensions = morphData.getDimensions(event.getPose());
 
         // Set the new dimensions (eye height is calculated automatically as 90% of height)
         if (newDimensions != null) {
@@ -1,10 +1,8 @@
 package com.guikipt.pixelmonmorpher.event;
 
 import com.guikipt.pixelmonmorpher.PixelmonMorpher;
-import com.guikipt.pixelmonmorpher.morph.MorphData;
-import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
-import com.guikipt.pixelmonmorpher.network.MorphDataSyncPacket;
-import com.guikipt.pixelmonmorpher.network.NetworkHandler;
+import com.guikipt.pixelmonmorpher.morph.MorphAuditLog;
+import com.guikipt.pixelmonmorpher.morph.MorphService;
 import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
 import com.pixelmonmod.pixelmon.battles.BattleRegistry;
 import com.pixelmonmod.pixelmon.entities.pixelmon.PixelmonEntity;
@@ -18,6 +16,7 @@ import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.event.entity.player.PlayerInteractEvent;
 
+import java.util.List;
 import java.util.Objects;
 
 /**
@@ -61,17 +60,14 @@ public class PokemonInteractionHandler {
             return;
         }
 
-        // Create morph data from the Pokémon
-        MorphData morphData = createMorphDataFromPokemon(pokemon);
-
-        // Apply the morph
-        PlayerMorphAttachment.setMorphData(serverPlayer, morphData);
-
-        // CRITICAL: Force dimensions update immediately
-        serverPlayer.refreshDimensions();
+        // Debug logging
+        PixelmonMorpher.LOGGER.info("Creating morph data from Pokemon: species={}, form={}, isShiny={}",
+            pokemon.getSpecies().getName(), pokemon.getForm().getName(), pokemon.isShiny());
 
-        // Sync to all clients so they can render the morph
-        NetworkHandler.sendToAll(new MorphDataSyncPacket(serverPlayer.getUUID(), morphData));
+        // Resolve and apply the morph through the shared pipeline (also syncs to all clients)
+        if (MorphService.apply(List.of(serverPlayer), MorphService.fromPokemon(pokemon), MorphAuditLog.Source.SYNCHRO_MACHINE).isEmpty()) {
+            return;
+        }
 
         // Send success message
         String pokemonName = pokemon.getSpecies().getName();
@@ -102,23 +98,12 @@ public class PokemonInteractionHandler {
         }
 
         ServerPlayer serverPlayer = (ServerPlayer) player;
-        MorphData currentMorph = PlayerMorphAttachment.getMorphData(serverPlayer);
 
-        // Only unmorph if currently morphed
-        if (!currentMorph.isMorphed()) {
+        // Clear the morph; only unmorph if currently morphed
+        if (MorphService.clear(List.of(serverPlayer), MorphAuditLog.Source.SYNCHRO_MACHINE).isEmpty()) {
             return;
         }
 
-        // Clear the morph
-        PlayerMorphAttachment.clearMorph(serverPlayer);
-
-        // CRITICAL: Force dimensions back to normal
-        serverPlayer.refreshDimensions();
-
-        // Sync to all clients
-        MorphData emptyMorph = new MorphData();
-        NetworkHandler.sendToAll(new MorphDataSyncPacket(serverPlayer.getUUID(), emptyMorph));
-
         // Send message
         serverPlayer.sendSystemMessage(Objects.requireNonNull(Component.literal("§eYou have returned to your normal form!")));
 
@@ -127,44 +112,4 @@ public class PokemonInteractionHandler {
         // Cancel to prevent block interaction
         event.setCanceled(true);
     }
-
-    /**
-     * Creates MorphData from a Pokémon
-     */
-    private static MorphData createMorphDataFromPokemon(Pokemon pokemon) {
-        String speciesName = pokemon.getSpecies().getName();
-        String formName = pokemon.getForm().getName(); // Get the actual form name (e.g., "hisui", "mega", etc.)
-        boolean isShiny = pokemon.isShiny();
-        String palette = pokemon.getPalette().getName();
-        float size = 1.0f; // Default size for now
-
-        // Debug logging
-        PixelmonMorpher.LOGGER.info("Creating morph data from Pokemon: species={}, form={}, isShiny={}",
-            speciesName, formName, isShiny);
-
-        // Get dimensions from the Pokémon entity
-        PixelmonEntity entity = pokemon.getOrSpawnPixelmon(null);
-        float width = 0.6f;  // Default player width
-        float height = 1.8f; // Default player height
-
-        if (entity != null) {
-            // Get the actual dimensions from the Pokémon entity
-            width = entity.getBbWidth();
-            height = entity.getBbHeight();
-
-            PixelmonMorpher.LOGGER.info("Entity dimensions: width={}, height={}", width, height);
-
-            // Clamp dimensions to reasonable values for player gameplay
-            // Min: 0.3 (very small Pokémon like Joltik)
-            // Max: 3.0 (very large Pokémon, scaled down for gameplay)
-            width = Math.max(0.3f, Math.min(3.0f, width));
-            height = Math.max(0.5f, Math.min(3.0f, height));
-
-            PixelmonMorpher.LOGGER.info("Clamped dimensions: width={}, height={}", width, height);
-        } else {
-            PixelmonMorpher.LOGGER.warn("Failed to create entity for {}", speciesName);
-        }
-
-        return new MorphData(speciesName, formName, isShiny, palette, size, width, height);
-    }
 }
@@ -0,0 +1,85 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Tracks the players that are currently morphed, so per-tick work only visits them.
+ * Kept in sync by {@link PlayerMorphAttachment} whenever a morph is set or cleared.
+ */
+public class ActiveMorphRegistry {
+
+    private static final Map<UUID, ServerPlayer> ACTIVE = new ConcurrentHashMap<>();
+
+    // Players whose abilities need reconciling at the end of the tick (morph or game mode changed)
+    private static final Set<ServerPlayer> PENDING_RECONCILE = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Record a player's morph state and queue an ability reconcile
+     */
+    public static void update(ServerPlayer player, boolean morphed) {
+        if (morphed) {
+            ACTIVE.put(player.getUUID(), player);
+        } else {
+            ACTIVE.remove(player.getUUID());
+        }
+        PENDING_RECONCILE.add(player);
+    }
+
+    /**
+     * Queue an ability reconcile without changing the morph state (e.g. after a game mode change)
+     */
+    public static void markDirty(ServerPlayer player) {
+        PENDING_RECONCILE.add(player);
+    }
+
+    /**
+     * Forget a player that left the server
+     */
+    public static void remove(ServerPlayer player) {
+        ACTIVE.remove(player.getUUID(), player);
+        PENDING_RECONCILE.remove(player);
+    }
+
+    /**
+     * Currently morphed players
+     */
+    public static Collection<ServerPlayer> active() {
+        return Collections.unmodifiableCollection(ACTIVE.values());
+    }
+
+    public static int size() {
+        return ACTIVE.size();
+    }
+
+    /**
+     * Hand every pending player to the consumer once and clear the queue
+     */
+    public static void drainPending(Consumer<ServerPlayer> consumer) {
+        if (PENDING_RECONCILE.isEmpty()) {
+            return;
+        }
+        Iterator<ServerPlayer> iterator = PENDING_RECONCILE.iterator();
+        while (iterator.hasNext()) {
+            ServerPlayer player = iterator.next();
+            iterator.remove();
+            consumer.accept(player);
+        }
+    }
+
+    /**
+     * Drop all state, used when the server stops
+     */
+    public static void clear() {
+        ACTIVE.clear();
+        PENDING_RECONCILE.clear();
+    }
+}
@@ -0,0 +1,464 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.Config;
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.world.level.storage.LevelResource;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Append-only record of every morph and unmorph: who, into what, when and from which source.
+ * The server thread only queues entries; a virtual-thread writer appends them to rotating segment files
+ * in {@code <world>/pixelmonmorpher/audit}, each named after its first entry's time and paired with a sparse
+ * index of every {@link #SPARSE_INTERVAL}th entry's time, so a time-range query only reads the segments and
+ * the part of each segment it needs. Entries leave the queue only once written; whatever the writer has not written
+ * when the server stops is written by the stopping thread.
+ *
+ * Segment layout: magic, format version, then fixed-size entries of time (epoch millis), player UUID,
+ * action, source, dex, form index, flags and quantized size. Entry times never decrease.
+ * Index layout: magic, format version, then (time, entry number) pairs.
+ */
+@EventBusSubscriber(modid = PixelmonMorpher.MODID)
+public class MorphAuditLog {
+
+    /**
+     * How a morph change was made
+     */
+    public enum Source {
+        COMMAND, MENU_REQUEST, SYNCHRO_MACHINE, OFFLINE_EDIT, DEATH;
+
+        public String displayName() {
+            return name().toLowerCase().replace('_', ' ');
+        }
+    }
+
+    /**
+     * One logged change; dex is -1 for an unmorph or a species without a dex number
+     */
+    public record Entry(long time, UUID playerId, boolean morphed, Source source, int dex, int formIndex, boolean shiny, float size) {
+
+        public String describe() {
+            return morphed ? "morphed into " + MorphData.describe(dex, formIndex, shiny, size) : "unmorphed";
+        }
+    }
+
+    /**
+     * Filters for {@link #query}; an empty player set or a dex of -1 matches everything
+     */
+    public record Query(long from, long to, Set<UUID> players, int dex) {
+
+        boolean matches(Entry entry) {
+            return (players.isEmpty() || players.contains(entry.playerId())) && (dex < 0 || entry.dex() == dex);
+        }
+    }
+
+    /**
+     * The most recent matches (oldest first), how many entries matched in total and how many segments were read
+     */
+    public record Result(List<Entry> latest, long matched, int segmentsRead) {
+    }
+
+    private static final int SEGMENT_MAGIC = 0x504D414C; // "PMAL"
+    private static final int INDEX_MAGIC = 0x504D4149; // "PMAI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 8;
+    private static final int ENTRY_BYTES = 33;
+    private static final int SPARSE_INTERVAL = 256;
+
+    private static final String SEGMENT_PREFIX = "audit-";
+    private static final String SEGMENT_EXTENSION = ".seg";
+    private static final String INDEX_EXTENSION = ".idx";
+
+    // How long the writer sleeps when there is nothing to write; record() doesn't wake it
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(250);
+
+    private static final int FLAG_SHINY = 1;
+
+    // How long stop() waits for the writer, and then for its lock before giving up on what is left
+    private static final long STOP_WAIT_SECONDS = 10;
+
+    private static final ConcurrentLinkedQueue<Entry> QUEUE = new ConcurrentLinkedQueue<>();
+
+    // Held while writing, so the stopping thread can take over from a late writer
+    private static final ReentrantLock WRITE_LOCK = new ReentrantLock();
+
+    private static volatile boolean running;
+    private static Thread writer;
+
+    // Writer state, guarded by WRITE_LOCK
+    private static Path dir;
+    private static long segmentLimit;
+    private static DataOutputStream segment;
+    private static DataOutputStream index;
+    private static long segmentEntries;
+    private static long lastTime;
+
+    /**
+     * Start the writer for the server's world, if the audit log is enabled
+     */
+    public static synchronized void start(MinecraftServer server) {
+        stop();
+        if (!QUEUE.isEmpty()) {
+            // Already reported lost by stop(); they belong to the previous world
+            PixelmonMorpher.LOGGER.warn("Discarding {} unwritten morph audit entries from the previous session", QUEUE.size());
+            QUEUE.clear();
+        }
+        if (!Config.AUDIT_LOG.get()) {
+            return;
+        }
+        dir = auditDir(server);
+        segmentLimit = Config.AUDIT_SEGMENT_KB.get() * 1024L;
+        lastTime = 0;
+        running = true;
+        writer = Thread.ofVirtual().name("PixelmonMorpher audit writer").start(MorphAuditLog::runWriter);
+    }
+
+    /**
+     * Write out everything queued and stop the writer. If the writer has not finished in time (or failed),
+     * the rest of the queue is written from the calling thread; nothing queued is dropped silently.
+     */
+    public static synchronized void stop() {
+        Thread thread = writer;
+        if (thread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(STOP_WAIT_SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        writer = null;
+        if (QUEUE.isEmpty()) {
+            return;
+        }
+
+        int queued = QUEUE.size();
+        int written = 0;
+        try {
+            if (WRITE_LOCK.tryLock(STOP_WAIT_SECONDS, TimeUnit.SECONDS)) {
+                try {
+                    written = writeQueued();
+                    flush();
+                } finally {
+                    closeSegment();
+                    WRITE_LOCK.unlock();
+                }
+            }
+        } catch (IOException e) {
+            PixelmonMorpher.LOGGER.error("Failed to write queued morph audit entries", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        PixelmonMorpher.LOGGER.warn("Morph audit writer did not finish its queue: {} of {} entries written on stop, {} lost",
+            written, queued, QUEUE.size());
+    }
+
+    /**
+     * Queue a player's new morph state; never blocks
+     */
+    public static void record(UUID playerId, MorphData data, Source source) {
+        if (!running) {
+            return;
+        }
+        int dex = -1;
+        int formIndex = -1;
+        if (data.isMorphed()) {
+            Species species = PixelmonSpecies.fromNameOrDex(Objects.requireNonNull(data.getSpeciesName())).orElse(null);
+            if (species != null) {
+                dex = species.getDex();
+                formIndex = MorphData.formIndex(species, data.getFormName());
+            }
+        }
+        QUEUE.add(new Entry(System.currentTimeMillis(), playerId, data.isMorphed(), source, dex, formIndex, data.isShiny(), data.getSize()));
+    }
+
+    public static Path auditDir(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(PixelmonMorpher.MODID).resolve("audit");
+    }
+
+    /**
+     * Find logged entries in a time range. Reads from disk, so call it off the server thread.
+     *
+     * @param limit how many of the most recent matches to return
+     */
+    public static Result query(Path dir, Query query, int limit) throws IOException {
+        List<Path> segments = new ArrayList<>();
+        if (Files.isDirectory(dir)) {
+            try (Stream<Path> files = Files.list(dir)) {
+                files.filter(file -> segmentStart(file) >= 0).forEach(segments::add);
+            }
+        }
+        segments.sort(Comparator.comparingLong(MorphAuditLog::segmentStart));
+
+        ArrayDeque<Entry> latest = new ArrayDeque<>(limit);
+        long matched = 0;
+        int segmentsRead = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            // Entry times never decrease, so a segment ends before the next one starts
+            if (segmentStart(segments.get(i)) > query.to()) {
+                break;
+            }
+            if (i + 1 < segments.size() && segmentStart(segments.get(i + 1)) < query.from()) {
+                continue;
+            }
+            segmentsRead++;
+            matched += scan(segments.get(i), query, latest, limit);
+        }
+        return new Result(List.copyOf(latest), matched, segmentsRead);
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        stop();
+    }
+
+    private static void runWriter() {
+        try {
+            while (running || !QUEUE.isEmpty()) {
+                WRITE_LOCK.lock();
+                try {
+                    writeQueued();
+                    flush();
+                } finally {
+                    WRITE_LOCK.unlock();
+                }
+                if (running) {
+                    LockSupport.parkNanos(IDLE_NANOS);
+                }
+            }
+        } catch (IOException e) {
+            // What is still queued is left for stop() to retry
+            PixelmonMorpher.LOGGER.error("Morph audit log writer failed, auditing is off until restart", e);
+            running = false;
+        } finally {
+            WRITE_LOCK.lock();
+            try {
+                closeSegment();
+            } finally {
+                WRITE_LOCK.unlock();
+            }
+        }
+    }
+
+    /**
+     * Write queued entries until the queue is empty; an entry leaves the queue only once it is written.
+     * Callers hold {@link #WRITE_LOCK}.
+     *
+     * @return how many entries were written
+     */
+    private static int writeQueued() throws IOException {
+        int written = 0;
+        Entry entry;
+        while ((entry = QUEUE.peek()) != null) {
+            write(entry);
+            QUEUE.poll();
+            written++;
+        }
+        return written;
+    }
+
+    private static void write(Entry entry) throws IOException {
+        if (segment == null) {
+            openSegment(Math.max(entry.time(), lastTime));
+        }
+        long time = Math.max(entry.time(), lastTime);
+        if (segmentEntries % SPARSE_INTERVAL == 0) {
+            index.writeLong(time);
+            index.writeInt((int) segmentEntries);
+        }
+
+        segment.writeLong(time);
+        segment.writeLong(entry.playerId().getMostSignificantBits());
+        segment.writeLong(entry.playerId().getLeastSignificantBits());
+        segment.writeByte(entry.morphed() ? 1 : 0);
+        segment.writeByte(entry.source().ordinal());
+        segment.writeShort(entry.dex());
+        segment.writeShort(entry.formIndex());
+        segment.writeByte(entry.shiny() ? FLAG_SHINY : 0);
+        segment.writeShort(MorphData.quantize(entry.size()));
+        segmentEntries++;
+        lastTime = time;
+
+        if (HEADER_BYTES + segmentEntries * ENTRY_BYTES >= segmentLimit) {
+            closeSegment();
+        }
+    }
+
+    private static void openSegment(long time) throws IOException {
+        Files.createDirectories(dir);
+        // Named after the first entry; bump the name past any segment already using this millisecond
+        long start = time;
+        while (Files.exists(dir.resolve(SEGMENT_PREFIX + start + SEGMENT_EXTENSION))) {
+            start++;
+        }
+        lastTime = start;
+        segment = open(dir.resolve(SEGMENT_PREFIX + start + SEGMENT_EXTENSION), SEGMENT_MAGIC);
+        index = open(dir.resolve(SEGMENT_PREFIX + start + INDEX_EXTENSION), INDEX_MAGIC);
+        segmentEntries = 0;
+    }
+
+    private static DataOutputStream open(Path file, int magic) throws IOException {
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(
+            Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE), 16 * 1024));
+        stream.writeInt(magic);
+        stream.writeInt(FORMAT_VERSION);
+        return stream;
+    }
+
+    private static void flush() throws IOException {
+        if (segment != null) {
+            segment.flush();
+            index.flush();
+        }
+    }
+
+    private static void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        try {
+            segment.close();
+            index.close();
+        } catch (IOException e) {
+            PixelmonMorpher.LOGGER.error("Failed to close morph audit segment", e);
+        }
+        segment = null;
+        index = null;
+    }
+
+    /**
+     * Scan one segment from the last sparse index point before the query start
+     *
+     * @return how many entries matched
+     */
+    private static long scan(Path file, Query query, ArrayDeque<Entry> latest, int limit) throws IOException {
+        long first = firstEntryBefore(indexFor(file), query.from());
+        long matched = 0;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 16 * 1024));
+            if (in.readInt() != SEGMENT_MAGIC || in.readInt() != FORMAT_VERSION) {
+                PixelmonMorpher.LOGGER.warn("Skipping unreadable morph audit segment {}", file.getFileName());
+                return 0;
+            }
+            channel.position(HEADER_BYTES + first * ENTRY_BYTES);
+            in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 16 * 1024));
+
+            while (true) {
+                Entry entry;
+                try {
+                    entry = read(in);
+                } catch (EOFException e) {
+                    // End of segment, or an entry the writer is still appending
+                    break;
+                }
+                if (entry.time() > query.to()) {
+                    break;
+                }
+                if (entry.time() < query.from() || entry.source() == null || !query.matches(entry)) {
+                    continue;
+                }
+                matched++;
+                if (latest.size() == limit) {
+                    latest.pollFirst();
+                }
+                latest.addLast(entry);
+            }
+        }
+        return matched;
+    }
+
+    private static Entry read(DataInputStream in) throws IOException {
+        long time = in.readLong();
+        UUID playerId = new UUID(in.readLong(), in.readLong());
+        boolean morphed = in.readByte() != 0;
+        int source = in.readUnsignedByte();
+        int dex = in.readShort();
+        int formIndex = in.readShort();
+        int flags = in.readUnsignedByte();
+        float size = MorphData.dequantize(in.readUnsignedShort());
+        Source[] sources = Source.values();
+        return new Entry(time, playerId, morphed, source < sources.length ? sources[source] : null,
+            dex, formIndex, (flags & FLAG_SHINY) != 0, size);
+    }
+
+    /**
+     * Entry number to start scanning from: the last indexed entry strictly before the time, or 0.
+     * Several entries can share a millisecond, so entries at exactly the time may come before an index point at it.
+     */
+    private static long firstEntryBefore(Path indexFile, long time) {
+        long first = 0;
+        if (!Files.isRegularFile(indexFile)) {
+            return first;
+        }
+        try (InputStream stream = Files.newInputStream(indexFile)) {
+            DataInputStream in = new DataInputStream(new BufferedInputStream(stream));
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != FORMAT_VERSION) {
+                return first;
+            }
+            while (true) {
+                long indexed = in.readLong();
+                int entry = in.readInt();
+                // Later points can only be later in time
+                if (indexed >= time) {
+                    break;
+                }
+                first = entry;
+            }
+        } catch (IOException e) {
+            // End of the index, or an unreadable one; scan from the last point found
+        }
+        return first;
+    }
+
+    private static Path indexFor(Path segmentFile) {
+        String name = segmentFile.getFileName().toString();
+        return segmentFile.resolveSibling(name.substring(0, name.length() - SEGMENT_EXTENSION.length()) + INDEX_EXTENSION);
+    }
+
+    /**
+     * Start time encoded in a segment's name, or -1 if the file isn't a segment
+     */
+    private static long segmentStart(Path file) {
+        String name = file.getFileName().toString();
+        if (!name.startsWith(SEGMENT_PREFIX) || !name.endsWith(SEGMENT_EXTENSION)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_EXTENSION.length()));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,195 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
+import net.neoforged.fml.ModList;
+import net.neoforged.fml.loading.FMLPaths;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Persists the resolved morph catalog (trait flags and clamped dimensions per species/form)
+ * to a compact binary file so restarts don't have to probe every species again.
+ * The file is keyed by a hash of the Pixelmon version and species data; a stale file is ignored and rewritten.
+ *
+ * Layout: magic, format version, content hash, record count, then per record:
+ * key (UTF-8, short length), dex, form index, {@link MorphTraits} flags, width, height.
+ */
+public class MorphCatalogCache {
+
+    private static final int MAGIC = 0x504D4D43; // "PMMC"
+    private static final int FORMAT_VERSION = 1;
+
+    private static volatile long contentHash;
+    // Written by background saves, read by the server thread before it schedules one
+    private static volatile int loadedRecords;
+
+    /**
+     * Compute the content hash and load the catalog file if it matches.
+     * Must be called once the Pixelmon registries are populated.
+     *
+     * @return true if the tables were seeded from disk
+     */
+    public static boolean load() {
+        contentHash = computeContentHash();
+        loadedRecords = 0;
+
+        Path path = getPath();
+        if (!Files.isRegularFile(path)) {
+            return false;
+        }
+
+        long start = System.nanoTime();
+        try {
+            // Read onto the heap rather than mapping, so no mapping pins the file when a rebuild replaces it
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(path));
+            if (buffer.getInt() != MAGIC || buffer.getInt() != FORMAT_VERSION) {
+                PixelmonMorpher.LOGGER.info("Morph catalog cache has an unknown format, it will be rebuilt");
+                return false;
+            }
+            if (buffer.getLong() != contentHash) {
+                PixelmonMorpher.LOGGER.info("Pixelmon species data changed, morph catalog cache will be rebuilt");
+                return false;
+            }
+
+            int count = buffer.getInt();
+            for (int i = 0; i < count; i++) {
+                String key = readString(buffer);
+                int dex = buffer.getInt();
+                int formIndex = buffer.getShort();
+                int flags = buffer.get();
+                float width = buffer.getFloat();
+                float height = buffer.getFloat();
+
+                MorphTraitTable.seed(new MorphTraitTable.Entry(key, dex, formIndex, flags, width, height));
+            }
+            loadedRecords = count;
+        } catch (Exception e) {
+            PixelmonMorpher.LOGGER.warn("Failed to read morph catalog cache, it will be rebuilt", e);
+            return false;
+        }
+
+        PixelmonMorpher.LOGGER.info("Loaded {} morph catalog entries from disk in {} ms",
+            loadedRecords, (System.nanoTime() - start) / 1_000_000L);
+        return true;
+    }
+
+    /**
+     * Write the current tables to disk on a background thread, if they cover more than what was loaded
+     */
+    public static CompletableFuture<Void> saveAsync() {
+        List<MorphTraitTable.Entry> entries = MorphTraitTable.snapshot();
+        if (entries.size() <= loadedRecords) {
+            return CompletableFuture.completedFuture(null);
+        }
+        long hash = contentHash;
+        return CompletableFuture.runAsync(() -> write(entries, hash));
+    }
+
+    /**
+     * Write the current tables to disk on the calling thread, if they cover more than what was loaded
+     */
+    public static void save() {
+        List<MorphTraitTable.Entry> entries = MorphTraitTable.snapshot();
+        if (entries.size() > loadedRecords) {
+            write(entries, contentHash);
+        }
+    }
+
+    private static synchronized void write(List<MorphTraitTable.Entry> entries, long hash) {
+        // An earlier queued save may already have written a larger snapshot
+        if (entries.size() <= loadedRecords) {
+            return;
+        }
+        Path path = getPath();
+        Path temp = path.resolveSibling(path.getFileName() + ".tmp");
+        try {
+            Files.createDirectories(path.getParent());
+            try (OutputStream file = Files.newOutputStream(temp);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeInt(FORMAT_VERSION);
+                out.writeLong(hash);
+                out.writeInt(entries.size());
+                for (MorphTraitTable.Entry entry : entries) {
+                    byte[] key = entry.name().getBytes(StandardCharsets.UTF_8);
+                    out.writeShort(key.length);
+                    out.write(key);
+                    out.writeInt(entry.speciesId());
+                    out.writeShort(entry.formId());
+                    out.writeByte(entry.flags());
+                    out.writeFloat(entry.width());
+                    out.writeFloat(entry.height());
+                }
+            }
+            Files.move(temp, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            loadedRecords = Math.max(loadedRecords, entries.size());
+            PixelmonMorpher.LOGGER.info("Saved {} morph catalog entries to {}", entries.size(), path);
+        } catch (IOException e) {
+            PixelmonMorpher.LOGGER.error("Failed to save morph catalog cache", e);
+        }
+    }
+
+    private static String readString(ByteBuffer buffer) {
+        byte[] bytes = new byte[buffer.getShort() & 0xFFFF];
+        buffer.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Hash of the Pixelmon version plus every species, form and type name (FNV-1a, 64 bit)
+     */
+    private static long computeContentHash() {
+        long hash = 0xcbf29ce484222325L;
+        String pixelmonVersion = ModList.get().getModContainerById("pixelmon")
+            .map(container -> container.getModInfo().getVersion().toString())
+            .orElse("unknown");
+        hash = mix(hash, pixelmonVersion);
+        hash = mix(hash, Integer.toString(FORMAT_VERSION));
+
+        List<Species> allSpecies = new ArrayList<>(PixelmonSpecies.getAll());
+        allSpecies.sort(Comparator.comparing(Species::getName));
+        for (Species species : allSpecies) {
+            hash = mix(hash, species.getName());
+            hash = mix(hash, Integer.toString(species.getDex()));
+            for (var form : species.getForms()) {
+                hash = mix(hash, form.getName());
+                for (var type : form.getTypes()) {
+                    if (type.getKey() != null) {
+                        hash = mix(hash, type.getKey().location().toString());
+                    }
+                }
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, String value) {
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        // Separator so "ab"+"c" and "a"+"bc" differ
+        hash ^= 0xFF;
+        hash *= 0x100000001b3L;
+        return hash;
+    }
+
+    private static Path getPath() {
+        return FMLPaths.CONFIGDIR.get().resolve(PixelmonMorpher.MODID).resolve("morph_catalog.bin");
+    }
+}
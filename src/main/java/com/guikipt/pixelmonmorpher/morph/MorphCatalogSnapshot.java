@@ -0,0 +1,98 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Stats;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Immutable name index of every species and form, safe to read from network threads.
+ * Built on the server thread once Pixelmon's registries are loaded and published as a whole,
+ * so request validation never touches Pixelmon's own lookups off the main thread.
+ */
+public final class MorphCatalogSnapshot {
+
+    /**
+     * A species with its forms keyed by lower-case name
+     */
+    public record SpeciesEntry(Species species, Stats defaultForm, Map<String, FormEntry> forms) {
+
+        /**
+         * Form by name; null, empty and "base" give the default form, an unknown name gives null
+         */
+        public FormEntry form(String name) {
+            if (name == null || name.isEmpty() || name.equalsIgnoreCase("base")) {
+                return forms.get(normalize(defaultForm.getName()));
+            }
+            return forms.get(normalize(name));
+        }
+    }
+
+    /**
+     * A form with its dense trait table key
+     */
+    public record FormEntry(Stats form, int key) {
+    }
+
+    private static volatile MorphCatalogSnapshot current = new MorphCatalogSnapshot(Map.of(), List.of());
+
+    private final Map<String, SpeciesEntry> species;
+    private final List<SpeciesEntry> byDex;
+
+    private MorphCatalogSnapshot(Map<String, SpeciesEntry> species, List<SpeciesEntry> byDex) {
+        this.species = species;
+        this.byDex = byDex;
+    }
+
+    /**
+     * Rebuild from Pixelmon's registries. Must be called on the server thread.
+     */
+    public static void rebuild() {
+        Map<String, SpeciesEntry> byName = new HashMap<>();
+        List<SpeciesEntry> byDex = new ArrayList<>();
+        for (Species species : PixelmonSpecies.getAll()) {
+            Map<String, FormEntry> forms = new HashMap<>();
+            for (Stats form : species.getForms()) {
+                forms.put(normalize(form.getName()), new FormEntry(form, MorphTraitTable.keyOf(species, form)));
+            }
+            SpeciesEntry entry = new SpeciesEntry(species, species.getDefaultForm(), Map.copyOf(forms));
+            byName.put(normalize(species.getName()), entry);
+            byName.putIfAbsent(String.valueOf(species.getDex()), entry);
+            byDex.add(entry);
+        }
+        byDex.sort(Comparator.comparingInt(entry -> entry.species().getDex()));
+        current = new MorphCatalogSnapshot(Map.copyOf(byName), List.copyOf(byDex));
+    }
+
+    public static MorphCatalogSnapshot get() {
+        return current;
+    }
+
+    /**
+     * Species by name or dex number, or null if unknown
+     */
+    public SpeciesEntry species(String nameOrDex) {
+        return nameOrDex != null ? species.get(normalize(nameOrDex)) : null;
+    }
+
+    /**
+     * Every species, in dex order
+     */
+    public List<SpeciesEntry> all() {
+        return byDex;
+    }
+
+    public int size() {
+        return species.size();
+    }
+
+    private static String normalize(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : "";
+    }
+}
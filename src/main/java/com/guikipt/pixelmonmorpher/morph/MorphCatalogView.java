@@ -0,0 +1,160 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.Config;
+import com.guikipt.pixelmonmorpher.network.MorphDataSyncPacket;
+import com.guikipt.pixelmonmorpher.network.MorphRequestPacket;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Stats;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.server.permission.PermissionAPI;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The morphs one player may pick in the menu: allowed species (by dex) with their allowed form indices,
+ * the palettes on offer (empty for any) and the size range. Built on the server from the catalog snapshot
+ * and {@link MorphPolicy}; clients cache the encoded form on disk keyed by {@link #hash}.
+ *
+ * Layout: format version, min size, max size, palette count and names,
+ * species count, then per species: dex, form count, form indices (all counts and ids as varints).
+ */
+public record MorphCatalogView(float minSize, float maxSize, List<String> palettes, Map<Integer, int[]> forms) {
+
+    private static final int FORMAT_VERSION = 1;
+
+    /**
+     * Build the catalog a player is allowed to see. Must be called on the server thread.
+     */
+    public static MorphCatalogView build(ServerPlayer player) {
+        boolean unrestricted = MorphPolicy.unrestricted(player);
+        boolean anySize = PermissionAPI.getPermission(player, MorphPolicy.IGNORE_SIZE_LIMITS);
+
+        Map<Integer, int[]> forms = new LinkedHashMap<>();
+        for (MorphCatalogSnapshot.SpeciesEntry entry : MorphCatalogSnapshot.get().all()) {
+            String speciesName = entry.species().getName();
+            List<Stats> speciesForms = entry.species().getForms();
+            int[] allowed = new int[speciesForms.size()];
+            int count = 0;
+            for (int i = 0; i < speciesForms.size(); i++) {
+                if (unrestricted || MorphPolicy.allows(speciesName, speciesForms.get(i).getName())) {
+                    allowed[count++] = i;
+                }
+            }
+            if (count > 0) {
+                forms.put(entry.species().getDex(), count == allowed.length ? allowed : Arrays.copyOf(allowed, count));
+            }
+        }
+
+        float minSize = anySize ? MorphRequestPacket.MIN_SIZE : (float) Math.max(MorphRequestPacket.MIN_SIZE, Config.MIN_MORPH_SIZE.get());
+        float maxSize = anySize ? MorphRequestPacket.MAX_SIZE : (float) Math.min(MorphRequestPacket.MAX_SIZE, Config.MAX_MORPH_SIZE.get());
+        return new MorphCatalogView(minSize, maxSize, unrestricted ? List.of() : MorphPolicy.allowedPalettes(), forms);
+    }
+
+    /**
+     * Whether a species' form (by index in its form list) is allowed
+     */
+    public boolean allows(int dex, int formIndex) {
+        int[] allowed = forms.get(dex);
+        if (allowed == null) {
+            return false;
+        }
+        for (int index : allowed) {
+            if (index == formIndex) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public byte[] toBytes() {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(4 * 1024));
+        try {
+            buf.writeVarInt(FORMAT_VERSION);
+            buf.writeFloat(minSize);
+            buf.writeFloat(maxSize);
+            buf.writeVarInt(palettes.size());
+            for (String palette : palettes) {
+                buf.writeUtf(palette, MorphDataSyncPacket.MAX_NAME_LENGTH);
+            }
+            buf.writeVarInt(forms.size());
+            forms.forEach((dex, indices) -> {
+                buf.writeVarInt(dex);
+                buf.writeVarInt(indices.length);
+                for (int index : indices) {
+                    buf.writeVarInt(index);
+                }
+            });
+
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            return bytes;
+        } finally {
+            buf.release();
+        }
+    }
+
+    /**
+     * Decode an encoded catalog, rejecting anything malformed
+     */
+    public static MorphCatalogView fromBytes(byte[] bytes) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(bytes));
+        int version = buf.readVarInt();
+        if (version != FORMAT_VERSION) {
+            throw new DecoderException("Unknown morph catalog version " + version);
+        }
+        float minSize = buf.readFloat();
+        float maxSize = buf.readFloat();
+        if (!Float.isFinite(minSize) || !Float.isFinite(maxSize) || minSize > maxSize) {
+            throw new DecoderException("Bad morph catalog size range " + minSize + " - " + maxSize);
+        }
+
+        int paletteCount = readCount(buf);
+        List<String> palettes = new ArrayList<>(paletteCount);
+        for (int i = 0; i < paletteCount; i++) {
+            palettes.add(buf.readUtf(MorphDataSyncPacket.MAX_NAME_LENGTH));
+        }
+
+        int speciesCount = readCount(buf);
+        Map<Integer, int[]> forms = new LinkedHashMap<>();
+        for (int i = 0; i < speciesCount; i++) {
+            int dex = buf.readVarInt();
+            int[] indices = new int[readCount(buf)];
+            for (int j = 0; j < indices.length; j++) {
+                indices[j] = buf.readVarInt();
+            }
+            forms.put(dex, indices);
+        }
+        if (buf.isReadable()) {
+            throw new DecoderException("Morph catalog has " + buf.readableBytes() + " trailing bytes");
+        }
+        return new MorphCatalogView(minSize, maxSize, List.copyOf(palettes), forms);
+    }
+
+    /**
+     * 64-bit FNV-1a hash of an encoded catalog
+     */
+    public static long hash(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xFF;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static int readCount(FriendlyByteBuf buf) {
+        // Every entry takes at least one byte
+        int count = buf.readVarInt();
+        if (count < 0 || count > buf.readableBytes()) {
+            throw new DecoderException("Bad morph catalog count " + count);
+        }
+        return count;
+    }
+}
@@ -1,30 +1,100 @@
 package com.guikipt.pixelmonmorpher.morph;
 
+import com.google.common.collect.Interner;
+import com.google.common.collect.Interners;
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Stats;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
 import net.minecraft.core.HolderLookup;
 import net.minecraft.nbt.CompoundTag;
-import net.neoforged.neoforge.common.util.INBTSerializable;
+import net.minecraft.world.entity.EntityDimensions;
+import net.minecraft.world.entity.Pose;
+import net.neoforged.neoforge.attachment.IAttachmentHolder;
+import net.neoforged.neoforge.attachment.IAttachmentSerializer;
 
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.List;
 import java.util.Objects;
 
 /**
- * Stores data about a player's current morph
+ * Immutable data about a player's current morph.
+ * Identical morphs are interned to one shared instance, so identity comparison is enough to detect a change.
  */
-public class MorphData implements INBTSerializable<CompoundTag> {
-    private String speciesName;
-    private String formName; // Changed from int to String to support all form types
-    private boolean isShiny;
-    private String palette; // For Pixelmon's palette system
-    private float size;
-    private float width;  // Pokémon width for player hitbox
-    private float height; // Pokémon height for player hitbox and eye height
-    private boolean isMorphed;
-
-    public MorphData() {
+public final class MorphData {
+    private static final Interner<MorphData> INTERNER = Interners.newWeakInterner();
+
+    /**
+     * Size and dimensions are kept in 1/QUANTUM steps so they fit an unsigned short on the wire without loss
+     */
+    public static final int QUANTUM = 256;
+
+    // Field bits used by delta syncs
+    public static final int FIELD_SPECIES = 1;
+    public static final int FIELD_FORM = 1 << 1;
+    public static final int FIELD_SHINY = 1 << 2;
+    public static final int FIELD_PALETTE = 1 << 3;
+    public static final int FIELD_SIZE = 1 << 4;
+    public static final int FIELD_WIDTH = 1 << 5;
+    public static final int FIELD_HEIGHT = 1 << 6;
+    public static final int ALL_FIELDS = (1 << 7) - 1;
+
+    /**
+     * Palettes common enough to be stored and sent by id
+     */
+    public static final List<String> COMMON_PALETTES = List.of("none", "shiny");
+
+    // Compact NBT schema version and flag bits
+    private static final int SCHEMA_VERSION = 2;
+    private static final int NBT_SHINY = 1;
+
+    /**
+     * Shared "not morphed" value
+     */
+    public static final MorphData EMPTY = new MorphData();
+
+    /**
+     * Attachment serializer; values are rebuilt through {@link #of} so loaded morphs are interned too.
+     * Unmorphed data is not written at all.
+     */
+    public static final IAttachmentSerializer<CompoundTag, MorphData> SERIALIZER = new IAttachmentSerializer<>() {
+        @Override
+        public MorphData read(@Nonnull IAttachmentHolder holder, @Nonnull CompoundTag tag, @Nonnull HolderLookup.Provider provider) {
+            return MorphData.deserializeNBT(tag);
+        }
+
+        @Override
+        @Nullable
+        public CompoundTag write(@Nonnull MorphData attachment, @Nonnull HolderLookup.Provider provider) {
+            return attachment.serializeNBT();
+        }
+    };
+
+    private final String speciesName;
+    private final String formName; // Changed from int to String to support all form types
+    private final boolean isShiny;
+    private final String palette; // For Pixelmon's palette system
+    private final float size;
+    private final float width;  // Pokémon width for player hitbox
+    private final float height; // Pokémon height for player hitbox and eye height
+    private final boolean isMorphed;
+    private final MorphPoseDimensions poseDimensions; // Derived from width/height, never serialized
+
+    private MorphData() {
+        this.speciesName = null;
+        this.formName = null;
+        this.isShiny = false;
+        this.palette = null;
+        this.size = 1.0f;
+        this.width = 0.6f;  // Default player width
+        this.height = 1.8f; // Default player height
         this.isMorphed = false;
+        this.poseDimensions = null;
     }
 
-    public MorphData(String speciesName, String formName, boolean isShiny, String palette, float size, float width, float height) {
+    private MorphData(String speciesName, String formName, boolean isShiny, String palette, float size, float width, float height) {
         this.speciesName = speciesName;
         this.formName = formName;
         this.isShiny = isShiny;
@@ -33,6 +103,26 @@ public class MorphData implements INBTSerializable<CompoundTag> {
         this.width = width;
         this.height = height;
         this.isMorphed = true;
+        this.poseDimensions = MorphPoseDimensions.of(width, height);
+    }
+
+    /**
+     * Get the shared instance for a morph; size and dimensions are snapped to the wire quantum
+     */
+    public static MorphData of(String speciesName, String formName, boolean isShiny, String palette, float size, float width, float height) {
+        return INTERNER.intern(new MorphData(speciesName, formName, isShiny, palette,
+            dequantize(quantize(size)), dequantize(quantize(width)), dequantize(quantize(height))));
+    }
+
+    /**
+     * Encode a size or dimension as an unsigned short
+     */
+    public static int quantize(float value) {
+        return Math.max(0, Math.min(0xFFFF, Math.round(value * QUANTUM)));
+    }
+
+    public static float dequantize(int quantized) {
+        return (float) quantized / QUANTUM;
     }
 
     public String getSpeciesName() {
@@ -69,58 +159,203 @@ public class MorphData implements INBTSerializable<CompoundTag> {
         return height;
     }
 
+    /**
+     * Hitbox for the given pose, or null if not morphed
+     */
+    public EntityDimensions getDimensions(Pose pose) {
+        return poseDimensions != null ? poseDimensions.get(pose) : null;
+    }
+
     public boolean isMorphed() {
         return isMorphed;
     }
 
-    public void setMorphed(boolean morphed) {
-        isMorphed = morphed;
+    /**
+     * Fields that differ between two morphed values
+     */
+    public int diff(MorphData other) {
+        int fields = 0;
+        if (!Objects.equals(speciesName, other.speciesName)) fields |= FIELD_SPECIES;
+        if (!Objects.equals(formName, other.formName)) fields |= FIELD_FORM;
+        if (isShiny != other.isShiny) fields |= FIELD_SHINY;
+        if (!Objects.equals(palette, other.palette)) fields |= FIELD_PALETTE;
+        if (Float.compare(size, other.size) != 0) fields |= FIELD_SIZE;
+        if (Float.compare(width, other.width) != 0) fields |= FIELD_WIDTH;
+        if (Float.compare(height, other.height) != 0) fields |= FIELD_HEIGHT;
+        return fields;
     }
 
     /**
-     * Save morph data to NBT
+     * This morph with the given fields taken from another value (used to apply a delta sync)
      */
-    @Override
-    public CompoundTag serializeNBT(@Nonnull HolderLookup.Provider provider) {
+    public MorphData withFields(MorphData source, int fields) {
+        return of(
+            (fields & FIELD_SPECIES) != 0 ? source.speciesName : speciesName,
+            (fields & FIELD_FORM) != 0 ? source.formName : formName,
+            (fields & FIELD_SHINY) != 0 ? source.isShiny : isShiny,
+            (fields & FIELD_PALETTE) != 0 ? source.palette : palette,
+            (fields & FIELD_SIZE) != 0 ? source.size : size,
+            (fields & FIELD_WIDTH) != 0 ? source.width : width,
+            (fields & FIELD_HEIGHT) != 0 ? source.height : height
+        );
+    }
+
+    /**
+     * Save morph data to NBT in the compact schema; unmorphed data writes nothing.
+     *
+     * Keys: "v" schema version, "dex" species dex (or "sp" name), "f" form index (or "fn" name),
+     * "p" palette id (or "pn" name), "fl" flag bits, "dims" size/width/height packed as three unsigned shorts.
+     */
+    public CompoundTag serializeNBT() {
+        if (!isMorphed) {
+            return null;
+        }
         CompoundTag tag = new CompoundTag();
-        tag.putBoolean("isMorphed", isMorphed);
-        if (isMorphed) {
-            tag.putString("speciesName", Objects.requireNonNull(speciesName));
-            tag.putString("formName", formName != null ? formName : "");
-            tag.putBoolean("isShiny", isShiny);
-            tag.putString("palette", Objects.requireNonNull(palette));
-            tag.putFloat("size", size);
-            tag.putFloat("width", width);
-            tag.putFloat("height", height);
+        tag.putByte("v", (byte) SCHEMA_VERSION);
+
+        Species species = PixelmonSpecies.fromNameOrDex(Objects.requireNonNull(speciesName)).orElse(null);
+        int formIndex = species != null ? formIndex(species, formName) : -1;
+        if (formIndex > 0xFF) {
+            formIndex = -1;
+        }
+        if (species != null) {
+            tag.putShort("dex", (short) species.getDex());
+        } else {
+            tag.putString("sp", Objects.requireNonNull(speciesName));
+        }
+        if (formIndex >= 0) {
+            tag.putByte("f", (byte) formIndex);
+        } else if (formName != null && !formName.isEmpty()) {
+            tag.putString("fn", formName);
+        }
+
+        int paletteId = COMMON_PALETTES.indexOf(palette);
+        if (paletteId >= 0) {
+            tag.putByte("p", (byte) paletteId);
+        } else {
+            tag.putString("pn", Objects.requireNonNull(palette));
         }
+
+        tag.putByte("fl", (byte) (isShiny ? NBT_SHINY : 0));
+        tag.putLong("dims", ((long) quantize(size) << 32) | ((long) quantize(width) << 16) | quantize(height));
         return tag;
     }
 
     /**
-     * Load morph data from NBT
+     * Load morph data from NBT, in the compact schema or the original string-keyed one
      */
-    @Override
-    public void deserializeNBT(@Nonnull HolderLookup.Provider provider, @Nonnull CompoundTag tag) {
-        this.isMorphed = tag.getBoolean("isMorphed");
-        if (this.isMorphed) {
-            this.speciesName = Objects.requireNonNull(tag.getString("speciesName"));
-            this.formName = Objects.requireNonNull(tag.getString("formName"));
-            this.isShiny = tag.getBoolean("isShiny");
-            this.palette = Objects.requireNonNull(tag.getString("palette"));
-            this.size = tag.getFloat("size");
-            this.width = tag.getFloat("width");
-            this.height = tag.getFloat("height");
+    public static MorphData deserializeNBT(@Nonnull CompoundTag tag) {
+        if (!tag.contains("v")) {
+            return deserializeLegacyNBT(tag);
+        }
+        int version = tag.getByte("v");
+        if (version != SCHEMA_VERSION) {
+            PixelmonMorpher.LOGGER.warn("Unknown morph data schema version {}, dropping the morph", version);
+            return EMPTY;
+        }
+
+        Species species = tag.contains("dex")
+            ? PixelmonSpecies.fromNameOrDex(String.valueOf(tag.getShort("dex"))).orElse(null)
+            : null;
+        String speciesName = species != null ? species.getName() : tag.getString("sp");
+        if (speciesName.isEmpty()) {
+            // Dex no longer known to Pixelmon
+            return EMPTY;
         }
+
+        String formName = tag.getString("fn");
+        if (tag.contains("f") && species != null) {
+            int index = tag.getByte("f") & 0xFF;
+            formName = index < species.getForms().size() ? species.getForms().get(index).getName() : "";
+        }
+
+        String palette = tag.getString("pn");
+        if (tag.contains("p")) {
+            int index = tag.getByte("p");
+            palette = index >= 0 && index < COMMON_PALETTES.size() ? COMMON_PALETTES.get(index) : "none";
+        }
+
+        long dims = tag.getLong("dims");
+        return of(
+            speciesName,
+            formName,
+            (tag.getByte("fl") & NBT_SHINY) != 0,
+            palette,
+            dequantize((int) (dims >>> 32) & 0xFFFF),
+            dequantize((int) (dims >>> 16) & 0xFFFF),
+            dequantize((int) dims & 0xFFFF)
+        );
     }
 
-    public void clear() {
-        this.isMorphed = false;
-        this.speciesName = null;
-        this.formName = null;
-        this.isShiny = false;
-        this.palette = null;
-        this.size = 1.0f;
-        this.width = 0.6f;  // Default player width
-        this.height = 1.8f; // Default player height
+    /**
+     * Original schema: string keys for every field plus an "isMorphed" flag
+     */
+    private static MorphData deserializeLegacyNBT(CompoundTag tag) {
+        if (!tag.getBoolean("isMorphed")) {
+            return EMPTY;
+        }
+        return of(
+            Objects.requireNonNull(tag.getString("speciesName")),
+            Objects.requireNonNull(tag.getString("formName")),
+            tag.getBoolean("isShiny"),
+            Objects.requireNonNull(tag.getString("palette")),
+            tag.getFloat("size"),
+            tag.getFloat("width"),
+            tag.getFloat("height")
+        );
+    }
+
+    /**
+     * Index of a form in its species' form list, matched by name ignoring case, or -1
+     */
+    public static int formIndex(Species species, String formName) {
+        List<Stats> forms = species.getForms();
+        for (int i = 0; i < forms.size(); i++) {
+            String name = forms.get(i).getName();
+            if (Objects.equals(name, formName) || (name != null && name.equalsIgnoreCase(formName))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Display a compactly stored morph (dex and form index), e.g. "Shiny Vulpix (alolan) at size 1.50"
+     */
+    public static String describe(int dex, int formIndex, boolean shiny, float size) {
+        if (dex < 0) {
+            return "an unindexed species";
+        }
+        Species species = PixelmonSpecies.fromNameOrDex(String.valueOf(dex)).orElse(null);
+        String name = species != null ? species.getName() : "#" + dex;
+        if (shiny) {
+            name = "Shiny " + name;
+        }
+        if (species != null && formIndex >= 0 && formIndex < species.getForms().size()) {
+            String form = species.getForms().get(formIndex).getName();
+            if (form != null && !form.isEmpty() && !form.equalsIgnoreCase("base")) {
+                name += " (" + form + ")";
+            }
+        }
+        return size != 1.0f ? String.format("%s at size %.2f", name, size) : name;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof MorphData other)) return false;
+        return isMorphed == other.isMorphed
+            && isShiny == other.isShiny
+            && Float.compare(size, other.size) == 0
+            && Float.compare(width, other.width) == 0
+            && Float.compare(height, other.height) == 0
+            && Objects.equals(speciesName, other.speciesName)
+            && Objects.equals(formName, other.formName)
+            && Objects.equals(palette, other.palette);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(speciesName, formName, isShiny, palette, size, width, height, isMorphed);
     }
 }
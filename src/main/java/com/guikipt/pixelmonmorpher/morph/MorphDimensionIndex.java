@@ -0,0 +1,76 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
+import com.pixelmonmod.pixelmon.api.pokemon.PokemonFactory;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+
+/**
+ * Resolves clamped hitbox dimensions per species and form.
+ * Each key is probed with a temporary Pixelmon entity once and stored in {@link MorphTraitTable}; every later morph is an array read.
+ */
+public class MorphDimensionIndex {
+
+    public static final float DEFAULT_WIDTH = 0.6f;  // Default player width
+    public static final float DEFAULT_HEIGHT = 1.8f; // Default player height
+
+    /**
+     * Clamped hitbox size of a species/form
+     */
+    public record Dimensions(float width, float height) {
+        public static final Dimensions DEFAULT = new Dimensions(DEFAULT_WIDTH, DEFAULT_HEIGHT);
+    }
+
+    /**
+     * Get the clamped dimensions for the Pokémon's species and form.
+     * The Pokémon itself is never used as the probe, so this is safe for Pokémon that are already in the world.
+     */
+    public static Dimensions get(Pokemon pokemon) {
+        Species species = pokemon.getSpecies();
+        if (species == null || pokemon.getForm() == null) {
+            return Dimensions.DEFAULT;
+        }
+
+        int key = MorphTraitTable.keyOf(species, pokemon.getForm());
+        Dimensions cached = MorphTraitTable.dimensions(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Dimensions dimensions = probe(pokemon, species);
+        MorphTraitTable.putDimensions(key, dimensions.width(), dimensions.height());
+        return dimensions;
+    }
+
+    private static Dimensions probe(Pokemon pokemon, Species species) {
+        try {
+            Pokemon probe = PokemonFactory.create(species);
+            if (pokemon.getForm() != null) {
+                probe.setForm(pokemon.getForm());
+            }
+
+            var entity = probe.getOrCreatePixelmon(null);
+            if (entity == null) {
+                PixelmonMorpher.LOGGER.warn("Failed to create entity for {}", species.getName());
+                return Dimensions.DEFAULT;
+            }
+
+            // Clamp dimensions to reasonable values for player gameplay
+            // Min: 0.3 (very small Pokémon like Joltik)
+            // Max: 3.0 (very large Pokémon, scaled down for gameplay)
+            float width = Math.max(0.3f, Math.min(3.0f, entity.getBbWidth()));
+            float height = Math.max(0.5f, Math.min(3.0f, entity.getBbHeight()));
+
+            // Ensure temporary entity is cleaned up if it was instantiated
+            try {
+                entity.discard();
+            } catch (Exception ignored) {
+            }
+
+            return new Dimensions(width, height);
+        } catch (Exception e) {
+            PixelmonMorpher.LOGGER.error("Error getting dimensions for {}", species.getName(), e);
+            return Dimensions.DEFAULT;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Cumulative counters for the morph pipeline, shown by {@code /pokemorph stats}.
+ * Cheap to bump from any thread; reset when the server stops.
+ */
+public class MorphMetrics {
+
+    // Outbound sync queue
+    public static final LongAdder SYNCS_QUEUED = new LongAdder();
+    public static final LongAdder SYNCS_COALESCED = new LongAdder();
+    public static final LongAdder SYNCS_FLUSHED = new LongAdder();
+    public static final LongAdder SYNCS_SUPPRESSED = new LongAdder();
+    public static final LongAdder PACKETS_SENT = new LongAdder();
+    public static final LongAdder ENTRIES_ENCODED = new LongAdder();
+
+    // Client morph requests
+    public static final LongAdder REQUESTS_ACCEPTED = new LongAdder();
+    public static final LongAdder REQUESTS_THROTTLED = new LongAdder();
+    public static final LongAdder REQUESTS_NOOP = new LongAdder();
+    public static final LongAdder REQUESTS_INVALID = new LongAdder();
+
+    // Morph policy
+    public static final LongAdder POLICY_REJECTED_SIZE = new LongAdder();
+    public static final LongAdder POLICY_REJECTED_HITBOX = new LongAdder();
+    public static final LongAdder POLICY_REJECTED_SPECIES = new LongAdder();
+    public static final LongAdder POLICY_REJECTED_PALETTE = new LongAdder();
+
+    // Catalog exchange
+    public static final LongAdder CATALOG_HASHES_SENT = new LongAdder();
+    public static final LongAdder CATALOG_SENT = new LongAdder();
+
+    private static final Map<String, LongAdder> COUNTERS = new LinkedHashMap<>();
+
+    static {
+        COUNTERS.put("syncs queued", SYNCS_QUEUED);
+        COUNTERS.put("syncs coalesced", SYNCS_COALESCED);
+        COUNTERS.put("syncs flushed", SYNCS_FLUSHED);
+        COUNTERS.put("viewer updates suppressed", SYNCS_SUPPRESSED);
+        COUNTERS.put("packets sent", PACKETS_SENT);
+        COUNTERS.put("sync entries encoded", ENTRIES_ENCODED);
+        COUNTERS.put("requests accepted", REQUESTS_ACCEPTED);
+        COUNTERS.put("requests throttled", REQUESTS_THROTTLED);
+        COUNTERS.put("requests rejected as no-op", REQUESTS_NOOP);
+        COUNTERS.put("requests rejected as invalid", REQUESTS_INVALID);
+        COUNTERS.put("morphs rejected by size limit", POLICY_REJECTED_SIZE);
+        COUNTERS.put("morphs rejected by hitbox limit", POLICY_REJECTED_HITBOX);
+        COUNTERS.put("morphs rejected by species limit", POLICY_REJECTED_SPECIES);
+        COUNTERS.put("morphs rejected by palette limit", POLICY_REJECTED_PALETTE);
+        COUNTERS.put("catalog hashes sent", CATALOG_HASHES_SENT);
+        COUNTERS.put("full catalogs sent", CATALOG_SENT);
+    }
+
+    /**
+     * Counter name to current value, in display order
+     */
+    public static Map<String, Long> snapshot() {
+        Map<String, Long> values = new LinkedHashMap<>();
+        COUNTERS.forEach((name, counter) -> values.put(name, counter.sum()));
+        return values;
+    }
+
+    public static void reset() {
+        COUNTERS.values().forEach(LongAdder::reset);
+    }
+}
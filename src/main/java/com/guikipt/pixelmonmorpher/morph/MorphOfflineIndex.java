@@ -0,0 +1,482 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerLevel;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.Level;
+import net.minecraft.world.level.storage.LevelResource;
+import net.neoforged.bus.api.EventPriority;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.level.LevelEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Memory-mapped index of every player's morph, so offline players can be queried and edited without
+ * loading their player data. Updated from the end-of-tick sync flush and at login, and written back by the OS,
+ * with an explicit force on each autosave. Edits to offline players are stored as pending and applied at
+ * their next login. Only used from the server thread.
+ *
+ * The table lives in {@code morph_index.<generation>.bin}. Growing it writes the next generation to a new file
+ * and switches over, so a file that may still be mapped is never renamed or truncated. A file only gets its magic
+ * once it is complete, and the newest valid generation is the one opened.
+ *
+ * Layout: a 32-byte header (magic, format version, capacity, live count, used count) followed by
+ * {@code capacity} 32-byte slots in an open-addressing table keyed by UUID:
+ * UUID, state, flags, dex, form index, palette id, size/width/height as quantized shorts.
+ */
+@EventBusSubscriber(modid = PixelmonMorpher.MODID)
+public class MorphOfflineIndex {
+
+    /**
+     * One player's indexed morph
+     */
+    public record Entry(UUID playerId, boolean morphed, int dex, int formIndex, boolean shiny, float size, boolean pendingClear) {
+
+        /**
+         * Species and form for display, e.g. "Shiny Vulpix (alolan)"
+         */
+        public String describe() {
+            return morphed ? MorphData.describe(dex, formIndex, shiny, size) : "not morphed";
+        }
+    }
+
+    private static final int MAGIC = 0x504D4F49; // "PMOI"
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 32;
+    private static final int SLOT_BYTES = 32;
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final String FILE_PREFIX = "morph_index.";
+    private static final String FILE_SUFFIX = ".bin";
+
+    // Slot states
+    private static final byte EMPTY = 0;
+    private static final byte LIVE = 1;
+    private static final byte DELETED = 2;
+
+    // Slot flags
+    private static final int FLAG_MORPHED = 1;
+    private static final int FLAG_SHINY = 1 << 1;
+    private static final int FLAG_PENDING_CLEAR = 1 << 2;
+
+    // Slot field offsets
+    private static final int OFF_STATE = 16;
+    private static final int OFF_FLAGS = 17;
+    private static final int OFF_DEX = 18;
+    private static final int OFF_FORM = 20;
+    private static final int OFF_PALETTE = 22;
+    private static final int OFF_SIZE = 24;
+    private static final int OFF_WIDTH = 26;
+    private static final int OFF_HEIGHT = 28;
+
+    private static Path dir;
+    private static int generation;
+    private static Path path;
+    private static FileChannel channel;
+    private static MappedByteBuffer buffer;
+    private static int capacity;
+    private static int live;
+    private static int used;
+
+    /**
+     * Open (or create) the index of the server's world
+     */
+    public static void open(MinecraftServer server) {
+        close();
+        dir = server.getWorldPath(LevelResource.ROOT).resolve(PixelmonMorpher.MODID);
+        try {
+            Files.createDirectories(dir);
+            List<Integer> generations = generations();
+            for (int i = generations.size() - 1; i >= 0 && buffer == null; i--) {
+                if (isValid(fileOf(generations.get(i)))) {
+                    generation = generations.get(i);
+                    map(fileOf(generation));
+                    PixelmonMorpher.LOGGER.info("Opened offline morph index with {} players", live);
+                } else {
+                    PixelmonMorpher.LOGGER.warn("Offline morph index {} is invalid, skipping it", fileOf(generations.get(i)).getFileName());
+                }
+            }
+            if (buffer == null) {
+                generation = generations.isEmpty() ? 0 : generations.get(generations.size() - 1) + 1;
+                create(fileOf(generation), INITIAL_CAPACITY);
+                map(fileOf(generation));
+                seal();
+            }
+
+            // Every other generation is superseded or unfinished
+            for (int other : generations) {
+                if (other != generation) {
+                    deleteQuietly(fileOf(other));
+                }
+            }
+        } catch (IOException e) {
+            PixelmonMorpher.LOGGER.error("Failed to open offline morph index in {}", dir, e);
+            close();
+        }
+    }
+
+    public static boolean isOpen() {
+        return buffer != null;
+    }
+
+    /**
+     * Flush the index, close its file and drop every reference to the mapping.
+     * Java has no explicit unmap: the mapping itself goes away once the buffer is collected,
+     * which is why a closed index file is only ever deleted best-effort.
+     */
+    public static void close() {
+        MappedByteBuffer mapped = buffer;
+        FileChannel opened = channel;
+        buffer = null;
+        channel = null;
+        release(mapped, opened);
+    }
+
+    /**
+     * Record a player's current morph. An unmorphed player without a pending edit leaves the index.
+     * A live change supersedes any pending edit.
+     */
+    public static void update(UUID playerId, MorphData data) {
+        if (buffer == null) {
+            return;
+        }
+        int slot = find(playerId);
+        if (!data.isMorphed()) {
+            if (slot >= 0) {
+                buffer.put(offset(slot) + OFF_STATE, DELETED);
+                live--;
+                writeCounts();
+            }
+            return;
+        }
+
+        if (slot < 0) {
+            if ((used + 1) * 10 > capacity * 6) {
+                rehash(live * 2 >= capacity / 2 ? capacity * 2 : capacity);
+            }
+            if (buffer == null || live >= capacity) {
+                // The table could not grow and is full
+                return;
+            }
+            slot = insertSlot(playerId);
+        }
+
+        Species species = PixelmonSpecies.fromNameOrDex(Objects.requireNonNull(data.getSpeciesName())).orElse(null);
+        int base = offset(slot);
+        buffer.put(base + OFF_FLAGS, (byte) (FLAG_MORPHED | (data.isShiny() ? FLAG_SHINY : 0)));
+        buffer.putShort(base + OFF_DEX, (short) (species != null ? species.getDex() : -1));
+        buffer.putShort(base + OFF_FORM, (short) (species != null ? MorphData.formIndex(species, data.getFormName()) : -1));
+        buffer.put(base + OFF_PALETTE, (byte) MorphData.COMMON_PALETTES.indexOf(data.getPalette()));
+        buffer.putShort(base + OFF_SIZE, (short) MorphData.quantize(data.getSize()));
+        buffer.putShort(base + OFF_WIDTH, (short) MorphData.quantize(data.getWidth()));
+        buffer.putShort(base + OFF_HEIGHT, (short) MorphData.quantize(data.getHeight()));
+    }
+
+    /**
+     * The indexed morph of a player, or null if the player isn't morphed
+     */
+    public static Entry get(UUID playerId) {
+        if (buffer == null) {
+            return null;
+        }
+        int slot = find(playerId);
+        return slot >= 0 ? read(slot) : null;
+    }
+
+    /**
+     * Every indexed player morphed into a species
+     */
+    public static List<Entry> findByDex(int dex) {
+        List<Entry> entries = new ArrayList<>();
+        if (buffer == null) {
+            return entries;
+        }
+        for (int slot = 0; slot < capacity; slot++) {
+            int base = offset(slot);
+            if (buffer.get(base + OFF_STATE) == LIVE && buffer.getShort(base + OFF_DEX) == dex) {
+                entries.add(read(slot));
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * Mark an offline player's morph to be cleared at their next login
+     *
+     * @return false if the player isn't morphed
+     */
+    public static boolean markPendingClear(UUID playerId) {
+        int slot = buffer != null ? find(playerId) : -1;
+        if (slot < 0) {
+            return false;
+        }
+        int base = offset(slot);
+        buffer.put(base + OFF_FLAGS, (byte) (buffer.get(base + OFF_FLAGS) | FLAG_PENDING_CLEAR));
+        return true;
+    }
+
+    @SubscribeEvent(priority = EventPriority.HIGHEST)
+    public static void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        if (!(event.getEntity() instanceof ServerPlayer player) || buffer == null) {
+            return;
+        }
+        // Runs before the login syncs, so the client never sees a morph that is being cleared
+        Entry entry = get(player.getUUID());
+        if (entry != null && entry.pendingClear()) {
+            PlayerMorphAttachment.clearMorph(player);
+            player.refreshDimensions();
+            MorphAuditLog.record(player.getUUID(), MorphData.EMPTY, MorphAuditLog.Source.OFFLINE_EDIT);
+            player.sendSystemMessage(Objects.requireNonNull(Component.literal("§eYour morph was cleared by an administrator while you were away.")));
+        }
+        // Picks up players whose morph predates the index
+        update(player.getUUID(), PlayerMorphAttachment.getMorphData(player));
+    }
+
+    @SubscribeEvent
+    public static void onLevelSave(LevelEvent.Save event) {
+        // Forced on the server thread, the only one that writes the index, so a flush never races a write
+        if (buffer != null && event.getLevel() instanceof ServerLevel level && level.dimension() == Level.OVERWORLD) {
+            buffer.force();
+        }
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        close();
+    }
+
+    private static Entry read(int slot) {
+        int base = offset(slot);
+        int flags = buffer.get(base + OFF_FLAGS);
+        return new Entry(
+            new UUID(buffer.getLong(base), buffer.getLong(base + 8)),
+            (flags & FLAG_MORPHED) != 0,
+            buffer.getShort(base + OFF_DEX),
+            buffer.getShort(base + OFF_FORM),
+            (flags & FLAG_SHINY) != 0,
+            MorphData.dequantize(buffer.getShort(base + OFF_SIZE) & 0xFFFF),
+            (flags & FLAG_PENDING_CLEAR) != 0
+        );
+    }
+
+    private static int find(UUID playerId) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int mask = capacity - 1;
+        int slot = hash(msb, lsb) & mask;
+        for (int probes = 0; probes < capacity; probes++) {
+            int base = offset(slot);
+            byte state = buffer.get(base + OFF_STATE);
+            if (state == EMPTY) {
+                return -1;
+            }
+            if (state == LIVE && buffer.getLong(base) == msb && buffer.getLong(base + 8) == lsb) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Claim a slot for a player known not to be in the table, reusing deleted slots
+     */
+    private static int insertSlot(UUID playerId) {
+        long msb = playerId.getMostSignificantBits();
+        long lsb = playerId.getLeastSignificantBits();
+        int mask = capacity - 1;
+        int slot = hash(msb, lsb) & mask;
+        while (buffer.get(offset(slot) + OFF_STATE) == LIVE) {
+            slot = (slot + 1) & mask;
+        }
+        int base = offset(slot);
+        if (buffer.get(base + OFF_STATE) == EMPTY) {
+            used++;
+        }
+        buffer.putLong(base, msb);
+        buffer.putLong(base + 8, lsb);
+        buffer.put(base + OFF_STATE, LIVE);
+        live++;
+        writeCounts();
+        return slot;
+    }
+
+    /**
+     * Rebuild the table at the given capacity, dropping deleted slots. The new table is written to the next
+     * generation's file and switched to; the old file is then closed and deleted. If the new file cannot be
+     * created the current table stays in use.
+     */
+    private static void rehash(int newCapacity) {
+        Path oldPath = path;
+        FileChannel oldChannel = channel;
+        MappedByteBuffer old = buffer;
+        int oldCapacity = capacity;
+        Path next = fileOf(generation + 1);
+        try {
+            // Left behind by an interrupted rehash; never sealed, so never opened or mapped
+            Files.deleteIfExists(next);
+            create(next, newCapacity);
+            map(next);
+        } catch (IOException e) {
+            PixelmonMorpher.LOGGER.error("Failed to grow offline morph index, keeping the current table", e);
+            return;
+        }
+        generation++;
+
+        for (int slot = 0; slot < oldCapacity; slot++) {
+            int oldBase = offset(slot);
+            if (old.get(oldBase + OFF_STATE) == LIVE) {
+                int base = offset(insertSlot(new UUID(old.getLong(oldBase), old.getLong(oldBase + 8))));
+                buffer.put(base + OFF_FLAGS, old, oldBase + OFF_FLAGS, SLOT_BYTES - OFF_FLAGS);
+            }
+        }
+        seal();
+
+        // The old table is no longer referenced once released, so its file can be deleted
+        release(old, oldChannel);
+        deleteQuietly(oldPath);
+    }
+
+    /**
+     * Create an unsealed index file; it only becomes valid once {@link #seal()} writes the magic
+     */
+    private static void create(Path file, int slots) throws IOException {
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            header.putInt(4, FORMAT_VERSION);
+            header.putInt(8, slots);
+            while (header.hasRemaining()) {
+                out.write(header);
+            }
+            // Extend to full size; the slots read as zero, which is the EMPTY state
+            out.write(ByteBuffer.allocate(1), HEADER_BYTES + (long) slots * SLOT_BYTES - 1);
+        }
+    }
+
+    /**
+     * Mark the mapped file as a complete index
+     */
+    private static void seal() {
+        buffer.putInt(0, MAGIC);
+        buffer.force();
+    }
+
+    /**
+     * Map an index file; its header must already be valid apart from the magic
+     */
+    private static void map(Path file) throws IOException {
+        FileChannel opened = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            MappedByteBuffer mapped = opened.map(FileChannel.MapMode.READ_WRITE, 0, opened.size());
+            path = file;
+            channel = opened;
+            buffer = mapped;
+            capacity = mapped.getInt(8);
+            live = mapped.getInt(12);
+            used = mapped.getInt(16);
+        } catch (IOException e) {
+            opened.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether a file holds a complete index, read without mapping it
+     */
+    private static boolean isValid(Path file) throws IOException {
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+            while (header.hasRemaining() && in.read(header) >= 0) {
+                // Keep reading until the header is full or the file ends
+            }
+            if (header.hasRemaining()) {
+                return false;
+            }
+            int slots = header.getInt(8);
+            return header.getInt(0) == MAGIC
+                && header.getInt(4) == FORMAT_VERSION
+                && slots > 0 && Integer.bitCount(slots) == 1
+                && in.size() == HEADER_BYTES + (long) slots * SLOT_BYTES;
+        }
+    }
+
+    private static void release(MappedByteBuffer mapped, FileChannel opened) {
+        if (mapped != null) {
+            mapped.force();
+        }
+        if (opened != null) {
+            try {
+                opened.close();
+            } catch (IOException e) {
+                PixelmonMorpher.LOGGER.error("Failed to close offline morph index", e);
+            }
+        }
+    }
+
+    /**
+     * Index generations present on disk, oldest first
+     */
+    private static List<Integer> generations() throws IOException {
+        List<Integer> generations = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, FILE_PREFIX + "*" + FILE_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    generations.add(Integer.parseInt(name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // Not an index generation
+                }
+            }
+        }
+        generations.sort(null);
+        return generations;
+    }
+
+    private static Path fileOf(int generation) {
+        return dir.resolve(FILE_PREFIX + generation + FILE_SUFFIX);
+    }
+
+    /**
+     * Delete an old index file; a platform that refuses while its mapping is still alive gets another try at the next open
+     */
+    private static void deleteQuietly(Path file) {
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            PixelmonMorpher.LOGGER.debug("Could not delete old offline morph index {} yet: {}", file.getFileName(), e.getMessage());
+        }
+    }
+
+    private static void writeCounts() {
+        buffer.putInt(12, live);
+        buffer.putInt(16, used);
+    }
+
+    private static int offset(int slot) {
+        return HEADER_BYTES + slot * SLOT_BYTES;
+    }
+
+    private static int hash(long msb, long lsb) {
+        long h = (msb ^ lsb) * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,151 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.Config;
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.server.permission.PermissionAPI;
+import net.neoforged.neoforge.server.permission.events.PermissionGatherEvent;
+import net.neoforged.neoforge.server.permission.nodes.PermissionNode;
+import net.neoforged.neoforge.server.permission.nodes.PermissionTypes;
+
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Server-side limits on which morphs players may use and how big they may get, checked by
+ * {@link MorphService#apply} before any morph is committed, whatever its source (command, menu request or
+ * Synchro Machine). The same rules build each player's morph catalog, so the menu only offers what passes.
+ * Players at {@code policyBypassLevel}, or granted the matching permission nodes, are exempt.
+ */
+@EventBusSubscriber(modid = PixelmonMorpher.MODID)
+public class MorphPolicy {
+
+    public static final PermissionNode<Boolean> IGNORE_SIZE_LIMITS = new PermissionNode<>(
+        PixelmonMorpher.MODID, "morph.ignore_size_limits", PermissionTypes.BOOLEAN,
+        (player, playerId, context) -> player != null && player.hasPermissions(Config.POLICY_BYPASS_LEVEL.get())
+    );
+
+    public static final PermissionNode<Boolean> ALL_SPECIES = new PermissionNode<>(
+        PixelmonMorpher.MODID, "morph.all_species", PermissionTypes.BOOLEAN,
+        (player, playerId, context) -> player != null && player.hasPermissions(Config.POLICY_BYPASS_LEVEL.get())
+    );
+
+    // Palettes every fresh Pokémon uses, always allowed
+    private static final Set<String> DEFAULT_PALETTES = Set.of("none", "shiny");
+
+    // Parsed blockedMorphs, rebuilt when the config list changes
+    private static List<? extends String> blockedSource;
+    private static Set<String> blocked = Set.of();
+
+    @SubscribeEvent
+    public static void onGatherPermissions(PermissionGatherEvent.Nodes event) {
+        event.addNodes(IGNORE_SIZE_LIMITS, ALL_SPECIES);
+    }
+
+    /**
+     * Check a morph against the limits for this player
+     *
+     * @return a player-facing reason, or null if the morph is allowed
+     */
+    public static String check(ServerPlayer player, MorphData data) {
+        if (!data.isMorphed()) {
+            return null;
+        }
+
+        if (!unrestricted(player)) {
+            if (!allows(data.getSpeciesName(), data.getFormName())) {
+                MorphMetrics.POLICY_REJECTED_SPECIES.increment();
+                return "§c" + data.getSpeciesName() + " is not available as a morph on this server.";
+            }
+            if (!allowsPalette(data.getPalette())) {
+                MorphMetrics.POLICY_REJECTED_PALETTE.increment();
+                return "§cThe " + data.getPalette() + " palette is not available on this server.";
+            }
+        }
+
+        if (PermissionAPI.getPermission(player, IGNORE_SIZE_LIMITS)) {
+            return null;
+        }
+
+        double minSize = Config.MIN_MORPH_SIZE.get();
+        double maxSize = Config.MAX_MORPH_SIZE.get();
+        if (data.getSize() < minSize || data.getSize() > maxSize) {
+            MorphMetrics.POLICY_REJECTED_SIZE.increment();
+            return String.format("§cMorph size must be between %.2f and %.2f.", minSize, maxSize);
+        }
+
+        double maxWidth = Config.MAX_MORPH_WIDTH.get();
+        double maxHeight = Config.MAX_MORPH_HEIGHT.get();
+        if (data.getWidth() > maxWidth || data.getHeight() > maxHeight) {
+            MorphMetrics.POLICY_REJECTED_HITBOX.increment();
+            return String.format("§cThat morph is too large (hitbox limit %.1f x %.1f blocks).", maxWidth, maxHeight);
+        }
+        return null;
+    }
+
+    /**
+     * Whether the player ignores the species, form and palette restrictions
+     */
+    public static boolean unrestricted(ServerPlayer player) {
+        return PermissionAPI.getPermission(player, ALL_SPECIES);
+    }
+
+    /**
+     * Whether blockedMorphs allows a species/form
+     */
+    public static boolean allows(String speciesName, String formName) {
+        Set<String> blocked = blocked();
+        if (blocked.isEmpty()) {
+            return true;
+        }
+        String species = normalize(speciesName);
+        if (blocked.contains(species)) {
+            return false;
+        }
+        return formName == null || formName.isEmpty() || !blocked.contains(species + ":" + normalize(formName));
+    }
+
+    /**
+     * Whether allowedPalettes allows a palette
+     */
+    public static boolean allowsPalette(String palette) {
+        List<? extends String> allowed = Config.ALLOWED_PALETTES.get();
+        return allowed.isEmpty() || palette == null || DEFAULT_PALETTES.contains(palette) || allowed.contains(palette);
+    }
+
+    /**
+     * Palettes a restricted player may pick, or an empty list if any palette is allowed
+     */
+    public static List<String> allowedPalettes() {
+        List<? extends String> allowed = Config.ALLOWED_PALETTES.get();
+        if (allowed.isEmpty()) {
+            return List.of();
+        }
+        Set<String> palettes = new LinkedHashSet<>(List.of("none", "shiny"));
+        palettes.addAll(allowed);
+        return List.copyOf(palettes);
+    }
+
+    private static synchronized Set<String> blocked() {
+        List<? extends String> source = Config.BLOCKED_MORPHS.get();
+        if (source != blockedSource) {
+            Set<String> parsed = new HashSet<>();
+            for (String entry : source) {
+                parsed.add(normalize(entry.trim()));
+            }
+            blocked = Set.copyOf(parsed);
+            blockedSource = source;
+        }
+        return blocked;
+    }
+
+    private static String normalize(String name) {
+        return name != null ? name.toLowerCase(Locale.ROOT) : "";
+    }
+}
@@ -0,0 +1,42 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import net.minecraft.world.entity.EntityDimensions;
+import net.minecraft.world.entity.Pose;
+
+/**
+ * Immutable pose to hitbox table for one morph, computed once when the morph data is created.
+ * Shared by the server and client size handlers; a size event is a single array read.
+ */
+public final class MorphPoseDimensions {
+
+    private static final Pose[] POSES = Pose.values();
+
+    private final EntityDimensions[] byPose;
+
+    private MorphPoseDimensions(EntityDimensions[] byPose) {
+        this.byPose = byPose;
+    }
+
+    public static MorphPoseDimensions of(float width, float height) {
+        EntityDimensions standing = EntityDimensions.scalable(width, height);
+        // For swimming/flying poses, make it flatter
+        EntityDimensions flat = EntityDimensions.scalable(width, Math.max(0.6f, height * 0.5f));
+        // For crouching, reduce height by 15%
+        EntityDimensions crouching = EntityDimensions.scalable(width, height * 0.85f);
+
+        EntityDimensions[] byPose = new EntityDimensions[POSES.length];
+        for (Pose pose : POSES) {
+            byPose[pose.ordinal()] = switch (pose) {
+                case SWIMMING, FALL_FLYING, SPIN_ATTACK -> flat;
+                case CROUCHING -> crouching;
+                // Use full Pokémon dimensions
+                default -> standing;
+            };
+        }
+        return new MorphPoseDimensions(byPose);
+    }
+
+    public EntityDimensions get(Pose pose) {
+        return byPose[pose.ordinal()];
+    }
+}
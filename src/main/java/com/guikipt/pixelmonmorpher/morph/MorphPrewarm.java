@@ -0,0 +1,59 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.event.MorphAbilityHandler;
+import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
+import com.pixelmonmod.pixelmon.api.pokemon.PokemonFactory;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Stats;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Fills the trait and dimension tables for every species and form at server start,
+ * so no morph, fall or flight check hits a cold Pixelmon lookup during play.
+ */
+public class MorphPrewarm {
+
+    private record FormKey(Species species, Stats form, boolean waterType) {
+    }
+
+    /**
+     * Walk every species and form. Must be called on the server thread.
+     */
+    public static void run() {
+        long start = System.nanoTime();
+        List<Species> allSpecies = new ArrayList<>(PixelmonSpecies.getAll());
+
+        // Form data is read-only, so the walk and the type checks are a pure mapping on the fork-join pool
+        List<FormKey> keys = ForkJoinPool.commonPool().submit(() -> allSpecies.parallelStream()
+            .flatMap(species -> species.getForms().stream()
+                .map(form -> new FormKey(species, form, MorphAbilityHandler.isWaterForm(form))))
+            .toList()
+        ).join();
+        long parallelNanos = System.nanoTime() - start;
+
+        // The trait table is synchronized, so it is filled from this thread alone
+        keys.forEach(key -> MorphAbilityHandler.prewarmWaterType(key.species(), key.form(), key.waterType()));
+
+        // Flight and hitbox probes construct entities, which has to stay on the main thread
+        int failed = 0;
+        for (FormKey key : keys) {
+            try {
+                Pokemon pokemon = PokemonFactory.create(key.species());
+                pokemon.setForm(key.form());
+                MorphAbilityHandler.resolveTraits(pokemon);
+                MorphDimensionIndex.get(pokemon);
+            } catch (Exception e) {
+                failed++;
+            }
+        }
+
+        long totalMillis = (System.nanoTime() - start) / 1_000_000L;
+        PixelmonMorpher.LOGGER.info("Morph prewarm covered {} species / {} forms in {} ms ({} ms parallel type scan, {} failed)",
+            allSpecies.size(), keys.size(), totalMillis, parallelNanos / 1_000_000L, failed);
+    }
+}
@@ -0,0 +1,84 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.Config;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-player token bucket for client morph requests, checked before any Pixelmon work runs.
+ * Each player holds up to {@code requestBurst} tokens and regains one every {@code requestRefillSeconds}.
+ */
+public class MorphRateLimiter {
+
+    private static final Map<UUID, Bucket> BUCKETS = new ConcurrentHashMap<>();
+
+    private static final class Bucket {
+        private double tokens;
+        private long lastRefill;
+        private boolean notified;
+        private long lastNotified;
+
+        private Bucket(double tokens, long now) {
+            this.tokens = tokens;
+            this.lastRefill = now;
+        }
+    }
+
+    /**
+     * Take one token for the player
+     *
+     * @return false if the player is over the limit
+     */
+    public static boolean tryAcquire(UUID playerId) {
+        int burst = Config.REQUEST_BURST.get();
+        double refillNanos = Config.REQUEST_REFILL_SECONDS.get() * 1_000_000_000.0;
+        long now = System.nanoTime();
+
+        Bucket bucket = BUCKETS.computeIfAbsent(playerId, id -> new Bucket(burst, now));
+        synchronized (bucket) {
+            if (refillNanos > 0) {
+                bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.lastRefill) / refillNanos);
+            } else {
+                bucket.tokens = burst;
+            }
+            bucket.lastRefill = now;
+
+            if (bucket.tokens < 1.0) {
+                return false;
+            }
+            bucket.tokens -= 1.0;
+            return true;
+        }
+    }
+
+    /**
+     * Whether a throttled player should be told so; true at most once per refill window,
+     * so a flood of throttled requests costs no more than one message
+     */
+    public static boolean tryNotify(UUID playerId) {
+        Bucket bucket = BUCKETS.get(playerId);
+        if (bucket == null) {
+            return false;
+        }
+        double refillNanos = Config.REQUEST_REFILL_SECONDS.get() * 1_000_000_000.0;
+        long now = System.nanoTime();
+        synchronized (bucket) {
+            if (bucket.notified && now - bucket.lastNotified < refillNanos) {
+                return false;
+            }
+            bucket.notified = true;
+            bucket.lastNotified = now;
+            return true;
+        }
+    }
+
+    public static void remove(UUID playerId) {
+        BUCKETS.remove(playerId);
+    }
+
+    public static void clear() {
+        BUCKETS.clear();
+    }
+}
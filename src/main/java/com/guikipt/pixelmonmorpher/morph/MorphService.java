@@ -0,0 +1,231 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.event.MorphAbilityHandler;
+import com.guikipt.pixelmonmorpher.network.MorphRequestPacket;
+import com.guikipt.pixelmonmorpher.network.MorphSyncQueue;
+import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
+import com.pixelmonmod.pixelmon.api.pokemon.PokemonFactory;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Stats;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
+import net.minecraft.network.chat.Component;
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Single pipeline for applying and clearing morphs.
+ * A spec is resolved once and applied to any number of players; their syncs are coalesced by {@link MorphSyncQueue}.
+ */
+public class MorphService {
+
+    /**
+     * A morph resolved against Pixelmon's registries, ready to apply to players
+     */
+    public record ResolvedMorph(MorphData data, MorphTraits traits, String displayName) {
+    }
+
+    /**
+     * Resolution failure with a player-facing message
+     */
+    public static class MorphException extends Exception {
+        public MorphException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Resolve a morph spec.
+     *
+     * @param strictForm if true an unknown form fails, otherwise the base form is kept
+     */
+    public static ResolvedMorph resolve(MorphSpec spec, boolean strictForm) throws MorphException {
+        // Get species from registry
+        Species species = PixelmonSpecies.fromNameOrDex(spec.speciesName()).orElse(null);
+        if (species == null) {
+            throw new MorphException("§cUnknown Pokémon: " + spec.speciesName());
+        }
+
+        // Create Pokemon to get proper form and palette
+        Pokemon pokemon = PokemonFactory.create(species);
+        pokemon.setShiny(spec.shiny());
+        if (spec.gender() != null) {
+            pokemon.setGender(spec.gender());
+        }
+        if (spec.level() > 0) {
+            pokemon.setLevel(spec.level());
+        }
+
+        // Handle form if specified
+        String formName = spec.formName();
+        if (formName != null && !formName.isEmpty() && !formName.equalsIgnoreCase("base")) {
+            try {
+                var form = species.getForm(formName);
+                if (form != null) {
+                    pokemon.setForm(form);
+                } else if (strictForm) {
+                    throw new MorphException("§cUnknown form '" + formName + "' for " + species.getName());
+                } else {
+                    PixelmonMorpher.LOGGER.warn("Morph: Form '{}' not found for {}", formName, species.getName());
+                }
+            } catch (MorphException e) {
+                throw e;
+            } catch (Exception e) {
+                if (strictForm) {
+                    throw new MorphException("§cInvalid form: " + formName);
+                }
+                PixelmonMorpher.LOGGER.error("Morph: Error applying form '{}' to {}", formName, species.getName(), e);
+                // Keep base form
+            }
+        }
+
+        // A palette the species/form doesn't define has no texture to render
+        if (!knownPalette(pokemon.getForm(), spec.palette())) {
+            throw new MorphException("§cUnknown palette '" + spec.palette() + "' for " + species.getName());
+        }
+
+        // Get dimensions from the species/form index and apply the size multiplier
+        var dimensions = MorphDimensionIndex.get(pokemon);
+        float width = dimensions.width() * spec.size();
+        float height = dimensions.height() * spec.size();
+
+        // Use the actual form name from the pokemon, not the requested one
+        String actualFormName = pokemon.getForm().getName();
+        String palette = spec.palette() != null && !spec.palette().equals("none") ? spec.palette() : pokemon.getPalette().getName();
+
+        MorphData data = MorphData.of(species.getName(), actualFormName, pokemon.isShiny(), palette, spec.size(), width, height);
+        return new ResolvedMorph(data, MorphAbilityHandler.resolveTraits(pokemon), displayName(data));
+    }
+
+    /**
+     * Resolve a pre-validated morph purely from the trait table, without creating a Pokémon.
+     * Safe to call off the main thread.
+     *
+     * @return the morph, or null if the species/form has not been resolved yet and needs {@link #resolve}
+     */
+    public static ResolvedMorph resolveCached(MorphCatalogSnapshot.SpeciesEntry species, MorphCatalogSnapshot.FormEntry form, MorphSpec spec) {
+        MorphTraits traits = MorphTraitTable.traits(form.key());
+        MorphDimensionIndex.Dimensions dimensions = MorphTraitTable.dimensions(form.key());
+        if (traits == null || dimensions == null) {
+            return null;
+        }
+
+        // A fresh Pokémon's palette is "shiny" or "none"
+        String palette = spec.palette() != null && !spec.palette().equals("none") ? spec.palette() : (spec.shiny() ? "shiny" : "none");
+
+        MorphData data = MorphData.of(species.species().getName(), form.form().getName(), spec.shiny(), palette, spec.size(),
+            dimensions.width() * spec.size(), dimensions.height() * spec.size());
+        return new ResolvedMorph(data, traits, displayName(data));
+    }
+
+    /**
+     * Resolve a morph copying an existing Pokémon (e.g. a wild Pokémon hit with the Synchro Machine).
+     * The Pokémon's own entity is never used as a probe.
+     */
+    public static ResolvedMorph fromPokemon(Pokemon pokemon) {
+        String speciesName = pokemon.getSpecies().getName();
+        String formName = pokemon.getForm().getName(); // Get the actual form name (e.g., "hisui", "mega", etc.)
+
+        // Get dimensions from the species/form index instead of the wild Pokémon's entity
+        var dimensions = MorphDimensionIndex.get(pokemon);
+
+        MorphData data = MorphData.of(speciesName, formName, pokemon.isShiny(), pokemon.getPalette().getName(),
+            1.0f, dimensions.width(), dimensions.height());
+        return new ResolvedMorph(data, MorphAbilityHandler.resolveTraits(data), displayName(data));
+    }
+
+    /**
+     * Apply a resolved morph to every player the {@link MorphPolicy} allows; syncs go out with the end-of-tick flush.
+     * Rejected players are told why. Every change is recorded in the {@link MorphAuditLog}.
+     *
+     * @return the players that were actually morphed
+     */
+    public static List<ServerPlayer> apply(Collection<ServerPlayer> players, ResolvedMorph morph, MorphAuditLog.Source source) {
+        List<ServerPlayer> applied = new ArrayList<>(players.size());
+        for (ServerPlayer player : players) {
+            String rejection = MorphPolicy.check(player, morph.data());
+            if (rejection != null) {
+                player.sendSystemMessage(Objects.requireNonNull(Component.literal(rejection)));
+                continue;
+            }
+            PlayerMorphAttachment.setMorphData(player, morph.data(), morph.traits());
+
+            // CRITICAL: Force dimensions update immediately
+            player.refreshDimensions();
+
+            applied.add(player);
+            MorphSyncQueue.enqueue(player);
+            MorphRequestPacket.forget(player.getUUID());
+            MorphAuditLog.record(player.getUUID(), morph.data(), source);
+        }
+        return applied;
+    }
+
+    /**
+     * Clear the morph of every morphed player; syncs go out with the end-of-tick flush
+     *
+     * @return the players that were actually unmorphed
+     */
+    public static List<ServerPlayer> clear(Collection<ServerPlayer> players, MorphAuditLog.Source source) {
+        List<ServerPlayer> cleared = new ArrayList<>(players.size());
+        for (ServerPlayer player : players) {
+            if (!PlayerMorphAttachment.isMorphed(player)) {
+                continue;
+            }
+            PlayerMorphAttachment.clearMorph(player);
+
+            // CRITICAL: Force dimensions back to normal
+            player.refreshDimensions();
+
+            cleared.add(player);
+            MorphSyncQueue.enqueue(player);
+            MorphRequestPacket.forget(player.getUUID());
+            MorphAuditLog.record(player.getUUID(), MorphData.EMPTY, source);
+        }
+        return cleared;
+    }
+
+    /**
+     * Palette names a form defines across its genders
+     */
+    public static List<String> paletteNames(Stats form) {
+        Set<String> names = new LinkedHashSet<>();
+        for (var gender : form.getGenderProperties()) {
+            for (var palette : gender.getPalettes()) {
+                names.add(palette.getName());
+            }
+        }
+        return List.copyOf(names);
+    }
+
+    /**
+     * Whether a form defines a palette; null and "none" stand for its default palette
+     */
+    public static boolean knownPalette(Stats form, String palette) {
+        if (palette == null || palette.equals("none")) {
+            return true;
+        }
+        List<String> names = paletteNames(form);
+        // No palette data at all: leave the choice to the renderer's fallback
+        return names.isEmpty() || names.contains(palette);
+    }
+
+    private static String displayName(MorphData data) {
+        String displayName = data.getSpeciesName();
+        if (data.isShiny()) {
+            displayName = "Shiny " + displayName;
+        }
+        String formName = data.getFormName();
+        if (formName != null && !formName.isEmpty() && !formName.equalsIgnoreCase("base")) {
+            displayName += " (" + formName + ")";
+        }
+        return displayName;
+    }
+}
@@ -0,0 +1,18 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.pixelmonmod.pixelmon.api.pokemon.species.gender.Gender;
+
+/**
+ * What a morph should look like, before it is resolved against Pixelmon's registries.
+ *
+ * @param formName form to apply, or null/empty/"base" for the default form
+ * @param palette palette to use, or null/"none" for the Pokémon's default palette
+ * @param gender gender for gender-specific forms, or null for Pixelmon's default
+ * @param level level to create the Pokémon at, or 0 for Pixelmon's default
+ */
+public record MorphSpec(String speciesName, String formName, boolean shiny, String palette, float size, Gender gender, int level) {
+
+    public static MorphSpec of(String speciesName, String formName, boolean shiny) {
+        return new MorphSpec(speciesName, formName, shiny, null, 1.0f, null, 0);
+    }
+}
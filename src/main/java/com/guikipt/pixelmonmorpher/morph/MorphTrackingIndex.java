@@ -0,0 +1,54 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Which players are tracking (can see) each player, mirrored from the tracking events.
+ * Morph syncs go only to a player's watchers and the player itself instead of the whole server.
+ */
+public class MorphTrackingIndex {
+
+    private static final Map<UUID, Set<ServerPlayer>> WATCHERS = new ConcurrentHashMap<>();
+
+    public static void startTracking(ServerPlayer target, ServerPlayer watcher) {
+        WATCHERS.computeIfAbsent(target.getUUID(), id -> ConcurrentHashMap.newKeySet()).add(watcher);
+    }
+
+    public static void stopTracking(ServerPlayer target, ServerPlayer watcher) {
+        Set<ServerPlayer> watchers = WATCHERS.get(target.getUUID());
+        if (watchers != null) {
+            watchers.remove(watcher);
+        }
+    }
+
+    /**
+     * Players currently tracking the target (not including the target itself)
+     */
+    public static Collection<ServerPlayer> watchers(ServerPlayer target) {
+        Set<ServerPlayer> watchers = WATCHERS.get(target.getUUID());
+        return watchers != null ? watchers : Set.of();
+    }
+
+    /**
+     * Forget a player that left the server, both as a target and as a watcher
+     */
+    public static void remove(ServerPlayer player) {
+        WATCHERS.remove(player.getUUID());
+        for (Set<ServerPlayer> watchers : WATCHERS.values()) {
+            watchers.remove(player);
+        }
+    }
+
+    /**
+     * Drop all state, used when the server stops
+     */
+    public static void clear() {
+        WATCHERS.clear();
+    }
+}
@@ -0,0 +1,205 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.event.MorphAbilityHandler;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Stats;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.server.packs.resources.SimpleJsonResourceReloadListener;
+import net.minecraft.util.GsonHelper;
+import net.minecraft.util.profiling.ProfilerFiller;
+
+import javax.annotation.Nonnull;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Loads morph trait rules from datapacks ({@code data/<namespace>/morph_traits/*.json}) and compiles
+ * them into the per-species/form rule column of {@link MorphTraitTable}.
+ *
+ * A rule selects forms by type, species ("vulpix" or "vulpix:alolan") or form name, and grants traits
+ * and movement modifiers. Every matching rule is merged once: trait bits are OR-ed and modifiers are summed.
+ *
+ * <pre>
+ * {
+ *   "types": ["water"],
+ *   "species": ["lapras"],
+ *   "forms": ["mega"],
+ *   "traits": ["water_breathing", "flight", "fire_immunity", "night_vision", "fall_immunity"],
+ *   "speed": 0.1,
+ *   "jump": 0.2
+ * }
+ * </pre>
+ */
+public class MorphTraitRules extends SimpleJsonResourceReloadListener {
+
+    private static final Gson GSON = new Gson();
+    private static final String DIRECTORY = "morph_traits";
+
+    /**
+     * Merged effect of one or more rules
+     */
+    private record Grant(int flags, float speed, float jump) {
+        static final Grant NONE = new Grant(0, 0.0f, 0.0f);
+
+        Grant merge(Grant other) {
+            return new Grant(flags | other.flags, speed + other.speed, jump + other.jump);
+        }
+    }
+
+    /**
+     * Selector maps from name to the indices of the rules it matches; each lookup is one hash probe
+     */
+    private record Compiled(Grant[] grants, Map<String, BitSet> byType, Map<String, BitSet> bySpecies, Map<String, BitSet> byForm) {
+        static final Compiled EMPTY = new Compiled(new Grant[0], Map.of(), Map.of(), Map.of());
+    }
+
+    private static volatile Compiled rules = Compiled.EMPTY;
+
+    public MorphTraitRules() {
+        super(GSON, DIRECTORY);
+    }
+
+    @Override
+    protected void apply(@Nonnull Map<ResourceLocation, JsonElement> files, @Nonnull ResourceManager resourceManager, @Nonnull ProfilerFiller profiler) {
+        List<Grant> grants = new ArrayList<>(files.size());
+        Map<String, BitSet> byType = new HashMap<>();
+        Map<String, BitSet> bySpecies = new HashMap<>();
+        Map<String, BitSet> byForm = new HashMap<>();
+
+        for (Map.Entry<ResourceLocation, JsonElement> file : files.entrySet()) {
+            try {
+                JsonObject json = GsonHelper.convertToJsonObject(file.getValue(), "morph trait rule");
+                Grant grant = parseGrant(json);
+                int index = grants.size();
+                addAll(byType, json, "types", index);
+                addAll(bySpecies, json, "species", index);
+                addAll(byForm, json, "forms", index);
+                grants.add(grant);
+            } catch (Exception e) {
+                PixelmonMorpher.LOGGER.error("Skipping invalid morph trait rule {}: {}", file.getKey(), e.getMessage());
+            }
+        }
+
+        rules = new Compiled(grants.toArray(new Grant[0]), Map.copyOf(byType), Map.copyOf(bySpecies), Map.copyOf(byForm));
+        MorphTraitTable.invalidateRules();
+        compileAll();
+
+        // A reload can change Pixelmon's species data, so the request validator gets a fresh index too
+        MorphCatalogSnapshot.rebuild();
+
+        // Morphed players pick up the new rules straight away
+        for (ServerPlayer player : ActiveMorphRegistry.active()) {
+            PlayerMorphAttachment.setTraits(player, MorphAbilityHandler.resolveTraits(PlayerMorphAttachment.getMorphData(player)));
+            ActiveMorphRegistry.markDirty(player);
+        }
+    }
+
+    /**
+     * Compile the loaded rules for one species/form into the trait table
+     */
+    public static void compile(int key, Species species, Stats form) {
+        compile(key, species.getName(), form.getName(), typeNames(form));
+    }
+
+    /**
+     * Compile the loaded rules for a species/form given by name and type names
+     */
+    static void compile(int key, String species, String form, List<String> types) {
+        Compiled current = rules;
+        BitSet matched = new BitSet(current.grants().length);
+
+        String speciesName = species.toLowerCase(Locale.ROOT);
+        String formName = form != null ? form.toLowerCase(Locale.ROOT) : "";
+
+        for (String type : types) {
+            match(matched, current.byType().get(type));
+        }
+        match(matched, current.bySpecies().get(speciesName));
+        if (!formName.isEmpty()) {
+            match(matched, current.bySpecies().get(speciesName + ":" + formName));
+            match(matched, current.byForm().get(formName));
+        }
+
+        Grant grant = Grant.NONE;
+        for (int index = matched.nextSetBit(0); index >= 0; index = matched.nextSetBit(index + 1)) {
+            grant = grant.merge(current.grants()[index]);
+        }
+
+        MorphTraitTable.putRules(key, grant.flags(), grant.speed(), grant.jump());
+    }
+
+    /**
+     * Type names (registry paths, lower case) of a form
+     */
+    public static List<String> typeNames(Stats form) {
+        List<String> names = new ArrayList<>(2);
+        if (form == null) {
+            return names;
+        }
+        // Use the Holder's key to get type name instead of toString() to avoid StackOverflowError
+        for (var holder : form.getTypes()) {
+            if (holder.getKey() != null) {
+                names.add(holder.getKey().location().getPath().toLowerCase(Locale.ROOT));
+            }
+        }
+        return names;
+    }
+
+    /**
+     * Recompile every known species/form. Skipped when Pixelmon's species are not loaded yet;
+     * entries are then compiled lazily the first time their traits are resolved.
+     */
+    private static void compileAll() {
+        long start = System.nanoTime();
+        int forms = 0;
+        for (Species species : PixelmonSpecies.getAll()) {
+            for (Stats form : species.getForms()) {
+                compile(MorphTraitTable.keyOf(species, form), species, form);
+                forms++;
+            }
+        }
+
+        long micros = (System.nanoTime() - start) / 1_000L;
+        PixelmonMorpher.LOGGER.info("Compiled {} morph trait rules into {} species/forms in {} us", rules.grants().length, forms, micros);
+    }
+
+    private static Grant parseGrant(JsonObject json) {
+        int flags = 0;
+        for (JsonElement element : GsonHelper.getAsJsonArray(json, "traits", new JsonArray())) {
+            flags |= switch (element.getAsString().toLowerCase(Locale.ROOT)) {
+                case "flight" -> MorphTraits.FLAG_FLIGHT;
+                case "water_breathing" -> MorphTraits.FLAG_WATER_BREATHING;
+                case "fire_immunity" -> MorphTraits.FLAG_FIRE_IMMUNE;
+                case "night_vision" -> MorphTraits.FLAG_NIGHT_VISION;
+                case "fall_immunity" -> MorphTraits.FLAG_FALL_IMMUNE;
+                default -> throw new IllegalArgumentException("Unknown trait: " + element.getAsString());
+            };
+        }
+        return new Grant(flags, GsonHelper.getAsFloat(json, "speed", 0.0f), GsonHelper.getAsFloat(json, "jump", 0.0f));
+    }
+
+    private static void addAll(Map<String, BitSet> target, JsonObject json, String field, int index) {
+        for (JsonElement element : GsonHelper.getAsJsonArray(json, field, new JsonArray())) {
+            target.computeIfAbsent(element.getAsString().toLowerCase(Locale.ROOT), name -> new BitSet()).set(index);
+        }
+    }
+
+    private static void match(BitSet matched, BitSet rules) {
+        if (rules != null) {
+            matched.or(rules);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Stats;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Interns every species/form to a dense int key and stores its trait flags and
+ * clamped dimensions in primitive arrays indexed by that key.
+ * A form is interned by identity the first time it is seen, so later lookups never build string keys.
+ * Datapack rule bits live in a separate column so a reload only recompiles that column.
+ */
+public class MorphTraitTable {
+
+    // Which parts of an entry have been resolved
+    public static final int RESOLVED_FLIGHT = 1;
+    public static final int RESOLVED_WATER = 1 << 1;
+    public static final int RESOLVED_DIMENSIONS = 1 << 2;
+    public static final int RESOLVED_RULES = 1 << 3;
+
+    private static final int RESOLVED_TRAITS = RESOLVED_FLIGHT | RESOLVED_WATER;
+    private static final int RESOLVED_PROFILE = RESOLVED_TRAITS | RESOLVED_RULES;
+    private static final int RESOLVED_CATALOG = RESOLVED_TRAITS | RESOLVED_DIMENSIONS;
+    private static final int INITIAL_CAPACITY = 2048;
+
+    private static final Map<Stats, Integer> FORM_KEYS = new IdentityHashMap<>();
+    private static final Map<String, Integer> NAME_KEYS = new HashMap<>();
+
+    private static String[] names = new String[INITIAL_CAPACITY];
+    private static int[] speciesIds = new int[INITIAL_CAPACITY];
+    private static int[] formIds = new int[INITIAL_CAPACITY];
+    private static int[] traitFlags = new int[INITIAL_CAPACITY];
+    private static int[] ruleFlags = new int[INITIAL_CAPACITY];
+    private static float[] speedBonuses = new float[INITIAL_CAPACITY];
+    private static float[] jumpBonuses = new float[INITIAL_CAPACITY];
+    private static int[] resolved = new int[INITIAL_CAPACITY];
+    private static float[] widths = new float[INITIAL_CAPACITY];
+    private static float[] heights = new float[INITIAL_CAPACITY];
+    private static MorphTraits[] profiles = new MorphTraits[INITIAL_CAPACITY];
+    private static MorphDimensionIndex.Dimensions[] dimensions = new MorphDimensionIndex.Dimensions[INITIAL_CAPACITY];
+    private static int size;
+
+    /**
+     * A fully resolved entry, used to persist the table
+     */
+    public record Entry(String name, int speciesId, int formId, int flags, float width, float height) {
+    }
+
+    /**
+     * Get (or assign) the dense key of a species/form
+     */
+    public static synchronized int keyOf(Species species, Stats form) {
+        Integer key = FORM_KEYS.get(form);
+        if (key != null) {
+            return key;
+        }
+
+        // First sighting of this form: intern it, reusing a key seeded from disk if there is one
+        int id = intern(keyName(species.getName(), form.getName()));
+        speciesIds[id] = species.getDex();
+        formIds[id] = species.getForms().indexOf(form);
+        FORM_KEYS.put(form, id);
+        return id;
+    }
+
+    /**
+     * Get (or assign) the key of a species/form by name, for entries that have no Pixelmon form to intern by identity
+     */
+    static synchronized int keyOf(String speciesName, String formName) {
+        return intern(keyName(speciesName, formName));
+    }
+
+    /**
+     * Trait profile of a key, or null if flight, water typing or datapack rules are not resolved yet
+     */
+    public static synchronized MorphTraits traits(int key) {
+        return profiles[key];
+    }
+
+    /**
+     * Dimensions of a key, or null if they have not been probed yet
+     */
+    public static synchronized MorphDimensionIndex.Dimensions dimensions(int key) {
+        return dimensions[key];
+    }
+
+    public static synchronized boolean isResolved(int key, int mask) {
+        return (resolved[key] & mask) == mask;
+    }
+
+    public static synchronized void putFlight(int key, boolean canFly, boolean hovers) {
+        int flags = traitFlags[key] & ~(MorphTraits.FLAG_CAN_FLY | MorphTraits.FLAG_HOVERS);
+        if (canFly) {
+            flags |= MorphTraits.FLAG_CAN_FLY;
+        }
+        if (hovers) {
+            flags |= MorphTraits.FLAG_HOVERS;
+        }
+        traitFlags[key] = flags;
+        markResolved(key, RESOLVED_FLIGHT);
+    }
+
+    public static synchronized void putWater(int key, boolean waterType) {
+        traitFlags[key] = waterType ? traitFlags[key] | MorphTraits.FLAG_WATER : traitFlags[key] & ~MorphTraits.FLAG_WATER;
+        markResolved(key, RESOLVED_WATER);
+    }
+
+    /**
+     * Store the datapack rule bits and modifiers compiled for a key
+     */
+    public static synchronized void putRules(int key, int flags, float speedBonus, float jumpBonus) {
+        ruleFlags[key] = flags;
+        speedBonuses[key] = speedBonus;
+        jumpBonuses[key] = jumpBonus;
+        markResolved(key, RESOLVED_RULES);
+    }
+
+    /**
+     * Forget every compiled rule entry after a datapack reload; probed facts and dimensions are kept
+     */
+    public static synchronized void invalidateRules() {
+        for (int id = 0; id < size; id++) {
+            resolved[id] &= ~RESOLVED_RULES;
+            profiles[id] = null;
+        }
+    }
+
+    public static synchronized void putDimensions(int key, float width, float height) {
+        widths[key] = width;
+        heights[key] = height;
+        dimensions[key] = new MorphDimensionIndex.Dimensions(width, height);
+        resolved[key] |= RESOLVED_DIMENSIONS;
+    }
+
+    /**
+     * Seed a fully resolved entry from a persisted catalog
+     */
+    public static synchronized void seed(Entry entry) {
+        int id = intern(entry.name());
+        if ((resolved[id] & RESOLVED_TRAITS) != 0) {
+            return;
+        }
+        speciesIds[id] = entry.speciesId();
+        formIds[id] = entry.formId();
+        traitFlags[id] = entry.flags();
+        markResolved(id, RESOLVED_TRAITS);
+        putDimensions(id, entry.width(), entry.height());
+    }
+
+    /**
+     * Every fully resolved entry, in key order
+     */
+    public static synchronized List<Entry> snapshot() {
+        List<Entry> entries = new ArrayList<>(size);
+        for (int id = 0; id < size; id++) {
+            if ((resolved[id] & RESOLVED_CATALOG) == RESOLVED_CATALOG && speciesIds[id] >= 0) {
+                entries.add(new Entry(names[id], speciesIds[id], formIds[id], traitFlags[id], widths[id], heights[id]));
+            }
+        }
+        return entries;
+    }
+
+    public static synchronized int size() {
+        return size;
+    }
+
+    private static void markResolved(int key, int mask) {
+        resolved[key] |= mask;
+        if ((resolved[key] & RESOLVED_PROFILE) == RESOLVED_PROFILE) {
+            profiles[key] = new MorphTraits(key, speciesIds[key], formIds[key], traitFlags[key] | ruleFlags[key],
+                speedBonuses[key], jumpBonuses[key]);
+        }
+    }
+
+    private static int intern(String name) {
+        Integer existing = NAME_KEYS.get(name);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (size == names.length) {
+            grow();
+        }
+        int id = size++;
+        names[id] = name;
+        speciesIds[id] = -1;
+        formIds[id] = -1;
+        NAME_KEYS.put(name, id);
+        return id;
+    }
+
+    private static void grow() {
+        int capacity = names.length * 2;
+        names = Arrays.copyOf(names, capacity);
+        speciesIds = Arrays.copyOf(speciesIds, capacity);
+        formIds = Arrays.copyOf(formIds, capacity);
+        traitFlags = Arrays.copyOf(traitFlags, capacity);
+        ruleFlags = Arrays.copyOf(ruleFlags, capacity);
+        speedBonuses = Arrays.copyOf(speedBonuses, capacity);
+        jumpBonuses = Arrays.copyOf(jumpBonuses, capacity);
+        resolved = Arrays.copyOf(resolved, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        profiles = Arrays.copyOf(profiles, capacity);
+        dimensions = Arrays.copyOf(dimensions, capacity);
+    }
+
+    private static String keyName(String species, String form) {
+        return species.toLowerCase() + ":" + (form != null ? form : "base").toLowerCase();
+    }
+}
@@ -0,0 +1,75 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+/**
+ * Immutable ability profile of a morph.
+ * Resolved once when the morph is applied so tick and fall handlers never touch Pixelmon;
+ * every ability check is a bitmask test on {@link #flags()}.
+ *
+ * The low bits are facts probed from Pixelmon (and persisted in the catalog); the rest come from
+ * the datapack rules compiled by {@link MorphTraitRules}.
+ */
+public record MorphTraits(int keyId, int speciesId, int formId, int flags, float speedBonus, float jumpBonus) {
+
+    // Probed from Pixelmon
+    public static final int FLAG_CAN_FLY = 1;
+    public static final int FLAG_HOVERS = 1 << 1;
+    public static final int FLAG_WATER = 1 << 2;
+
+    // Granted by datapack rules
+    public static final int FLAG_FLIGHT = 1 << 3;
+    public static final int FLAG_WATER_BREATHING = 1 << 4;
+    public static final int FLAG_FIRE_IMMUNE = 1 << 5;
+    public static final int FLAG_NIGHT_VISION = 1 << 6;
+    public static final int FLAG_FALL_IMMUNE = 1 << 7;
+
+    /**
+     * Bits that come from the Pixelmon probe rather than from rules
+     */
+    public static final int PROBED_MASK = FLAG_CAN_FLY | FLAG_HOVERS | FLAG_WATER;
+
+    private static final int FLIGHT_MASK = FLAG_CAN_FLY | FLAG_HOVERS | FLAG_FLIGHT;
+    private static final int NO_FALL_MASK = FLIGHT_MASK | FLAG_FALL_IMMUNE;
+
+    /**
+     * Profile used for players that are not morphed (or whose species could not be resolved)
+     */
+    public static final MorphTraits NONE = new MorphTraits(-1, -1, -1, 0, 0.0f, 0.0f);
+
+    public boolean canFly() {
+        return (flags & FLAG_CAN_FLY) != 0;
+    }
+
+    public boolean hovers() {
+        return (flags & FLAG_HOVERS) != 0;
+    }
+
+    public boolean waterType() {
+        return (flags & FLAG_WATER) != 0;
+    }
+
+    public boolean waterBreathing() {
+        return (flags & FLAG_WATER_BREATHING) != 0;
+    }
+
+    public boolean fireImmune() {
+        return (flags & FLAG_FIRE_IMMUNE) != 0;
+    }
+
+    public boolean nightVision() {
+        return (flags & FLAG_NIGHT_VISION) != 0;
+    }
+
+    /**
+     * Whether the morph should be allowed to fly in survival
+     */
+    public boolean flightCapable() {
+        return (flags & FLIGHT_MASK) != 0;
+    }
+
+    /**
+     * Whether fall damage should be cancelled (flying morphs and the fall_immunity trait)
+     */
+    public boolean fallImmune() {
+        return (flags & NO_FALL_MASK) != 0;
+    }
+}
@@ -20,21 +20,55 @@ public class PlayerMorphAttachment {
 
     public static final Supplier<AttachmentType<MorphData>> MORPH_DATA = Objects.requireNonNull(ATTACHMENT_TYPES.register(
         "morph_data",
-        () -> AttachmentType.serializable(MorphData::new).build()
+        () -> AttachmentType.builder(() -> MorphData.EMPTY).serialize(MorphData.SERIALIZER).build()
+    ));
+
+    // Not serialized: rebuilt from the morph data when the player logs in
+    public static final Supplier<AttachmentType<MorphTraits>> MORPH_TRAITS = Objects.requireNonNull(ATTACHMENT_TYPES.register(
+        "morph_traits",
+        () -> AttachmentType.builder(() -> MorphTraits.NONE).build()
     ));
 
     /**
-     * Get the morph data for a player
+     * Get the morph data for a player. Reading never creates the attachment, so players that never
+     * morphed carry none.
      */
     public static MorphData getMorphData(ServerPlayer player) {
-        return Objects.requireNonNull(player.getData(Objects.requireNonNull(MORPH_DATA)));
+        return player.getExistingData(Objects.requireNonNull(MORPH_DATA)).orElse(MorphData.EMPTY);
     }
 
     /**
-     * Set morph data for a player
+     * Set morph data for a player; unmorphed data removes the attachment
      */
     public static void setMorphData(ServerPlayer player, MorphData data) {
-        player.setData(Objects.requireNonNull(MORPH_DATA), Objects.requireNonNull(data));
+        if (data.isMorphed()) {
+            player.setData(Objects.requireNonNull(MORPH_DATA), Objects.requireNonNull(data));
+        } else {
+            player.removeData(Objects.requireNonNull(MORPH_DATA));
+        }
+        ActiveMorphRegistry.update(player, data.isMorphed());
+    }
+
+    /**
+     * Set morph data for a player together with its precomputed trait profile
+     */
+    public static void setMorphData(ServerPlayer player, MorphData data, MorphTraits traits) {
+        setMorphData(player, data);
+        setTraits(player, traits);
+    }
+
+    /**
+     * Get the trait profile resolved for the player's current morph
+     */
+    public static MorphTraits getTraits(ServerPlayer player) {
+        return Objects.requireNonNull(player.getData(Objects.requireNonNull(MORPH_TRAITS)));
+    }
+
+    /**
+     * Set the trait profile for a player's current morph
+     */
+    public static void setTraits(ServerPlayer player, MorphTraits traits) {
+        player.setData(Objects.requireNonNull(MORPH_TRAITS), Objects.requireNonNull(traits));
     }
 
     /**
@@ -45,11 +79,9 @@ public class PlayerMorphAttachment {
     }
 
     /**
-     * Clear a player's morph
+     * Clear a player's morph by removing the attachment
      */
     public static void clearMorph(ServerPlayer player) {
-        MorphData data = getMorphData(player);
-        data.clear();
-        setMorphData(player, data);
+        setMorphData(player, MorphData.EMPTY, MorphTraits.NONE);
     }
 }
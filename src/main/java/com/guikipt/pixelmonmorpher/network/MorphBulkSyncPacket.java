@@ -0,0 +1,73 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * Syncs the morph data of several players in one packet, e.g. after a batch morph.
+ *
+ * {@code encoded} optionally holds each entry already serialized; those arrays are shared read-only
+ * by every recipient of the same update, so a broadcast encodes each entry once however many viewers
+ * get it. The entries themselves are kept for in-memory connections (singleplayer), which skip encoding.
+ */
+public record MorphBulkSyncPacket(List<MorphDataSyncPacket> entries, List<byte[]> encoded) implements CustomPacketPayload {
+    public static final CustomPacketPayload.Type<MorphBulkSyncPacket> TYPE =
+        new CustomPacketPayload.Type<>(Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(PixelmonMorpher.MODID, "morph_bulk_sync")));
+
+    public static final StreamCodec<FriendlyByteBuf, MorphBulkSyncPacket> STREAM_CODEC = StreamCodec.of(
+        (buf, packet) -> MorphBulkSyncPacket.encode(packet, buf),
+        MorphBulkSyncPacket::decode
+    );
+
+    public MorphBulkSyncPacket(List<MorphDataSyncPacket> entries) {
+        this(entries, null);
+    }
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public static MorphBulkSyncPacket decode(FriendlyByteBuf buf) {
+        return MorphDataSyncPacket.decodeStrict(buf, MorphBulkSyncPacket::decodeEntries, "morph bulk sync");
+    }
+
+    private static MorphBulkSyncPacket decodeEntries(FriendlyByteBuf buf) {
+        int count = MorphDataSyncPacket.readEntryCount(buf);
+        List<MorphDataSyncPacket> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(MorphDataSyncPacket.decode(buf));
+        }
+        return new MorphBulkSyncPacket(entries);
+    }
+
+    public static void encode(MorphBulkSyncPacket msg, FriendlyByteBuf buf) {
+        buf.writeVarInt(msg.entries.size());
+        if (msg.encoded != null) {
+            for (byte[] entry : msg.encoded) {
+                buf.writeBytes(entry);
+            }
+            return;
+        }
+        for (MorphDataSyncPacket entry : msg.entries) {
+            MorphDataSyncPacket.encode(entry, buf);
+        }
+    }
+
+    public static void handle(MorphBulkSyncPacket msg, IPayloadContext ctx) {
+        ctx.enqueueWork(() -> {
+            for (MorphDataSyncPacket entry : msg.entries) {
+                entry.applyOnClient();
+            }
+        });
+    }
+}
@@ -0,0 +1,39 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import java.util.Objects;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.client.morph.ClientMorphCatalog;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * Sent at login with the content hash of the player's morph catalog. A client that has that catalog
+ * cached on disk uses it; otherwise it asks for the full catalog with a {@link MorphCatalogRequestPacket}.
+ */
+public record MorphCatalogHashPacket(long hash) implements CustomPacketPayload {
+    public static final CustomPacketPayload.Type<MorphCatalogHashPacket> TYPE =
+        new CustomPacketPayload.Type<>(Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(PixelmonMorpher.MODID, "morph_catalog_hash")));
+
+    public static final StreamCodec<FriendlyByteBuf, MorphCatalogHashPacket> STREAM_CODEC = StreamCodec.of(
+        (buf, packet) -> buf.writeLong(packet.hash),
+        buf -> new MorphCatalogHashPacket(buf.readLong())
+    );
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public static void handle(MorphCatalogHashPacket msg, IPayloadContext ctx) {
+        ctx.enqueueWork(() -> {
+            if (!ClientMorphCatalog.loadCached(msg.hash)) {
+                NetworkHandler.sendToServer(new MorphCatalogRequestPacket(msg.hash));
+            }
+        });
+    }
+}
@@ -0,0 +1,41 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import java.util.Objects;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.client.morph.ClientMorphCatalog;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * The full encoded morph catalog of a player (see {@link com.guikipt.pixelmonmorpher.morph.MorphCatalogView}),
+ * sent only when the client asked for it. The client checks it against the hash and caches it on disk.
+ */
+public record MorphCatalogPacket(long hash, byte[] catalog) implements CustomPacketPayload {
+    public static final CustomPacketPayload.Type<MorphCatalogPacket> TYPE =
+        new CustomPacketPayload.Type<>(Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(PixelmonMorpher.MODID, "morph_catalog")));
+
+    // A full catalog is a few KiB; refuse anything far beyond that
+    private static final int MAX_CATALOG_BYTES = 256 * 1024;
+
+    public static final StreamCodec<FriendlyByteBuf, MorphCatalogPacket> STREAM_CODEC = StreamCodec.of(
+        (buf, packet) -> {
+            buf.writeLong(packet.hash);
+            buf.writeByteArray(packet.catalog);
+        },
+        buf -> new MorphCatalogPacket(buf.readLong(), buf.readByteArray(MAX_CATALOG_BYTES))
+    );
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public static void handle(MorphCatalogPacket msg, IPayloadContext ctx) {
+        ctx.enqueueWork(() -> ClientMorphCatalog.accept(msg.hash, msg.catalog));
+    }
+}
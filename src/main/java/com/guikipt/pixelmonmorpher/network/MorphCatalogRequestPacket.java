@@ -0,0 +1,38 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import java.util.Objects;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * Sent by a client that doesn't have the announced morph catalog cached, asking for the full catalog
+ */
+public record MorphCatalogRequestPacket(long hash) implements CustomPacketPayload {
+    public static final CustomPacketPayload.Type<MorphCatalogRequestPacket> TYPE =
+        new CustomPacketPayload.Type<>(Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(PixelmonMorpher.MODID, "morph_catalog_request")));
+
+    public static final StreamCodec<FriendlyByteBuf, MorphCatalogRequestPacket> STREAM_CODEC = StreamCodec.of(
+        (buf, packet) -> buf.writeLong(packet.hash),
+        buf -> new MorphCatalogRequestPacket(buf.readLong())
+    );
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public static void handle(MorphCatalogRequestPacket msg, IPayloadContext ctx) {
+        ctx.enqueueWork(() -> {
+            if (ctx.player() instanceof ServerPlayer player) {
+                MorphCatalogSync.onRequest(player, msg.hash);
+            }
+        });
+    }
+}
@@ -0,0 +1,63 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.morph.MorphCatalogView;
+import com.guikipt.pixelmonmorpher.morph.MorphMetrics;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.entity.player.PlayerEvent;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server side of the morph catalog exchange: announce each player's catalog hash at login and send
+ * the full catalog only to clients that ask for it. A client can ask once per announcement.
+ */
+@EventBusSubscriber(modid = PixelmonMorpher.MODID)
+public class MorphCatalogSync {
+
+    // Players that were sent a hash and may still ask for the catalog
+    private static final Map<UUID, Long> ANNOUNCED = new ConcurrentHashMap<>();
+
+    @SubscribeEvent
+    public static void onPlayerLogin(PlayerEvent.PlayerLoggedInEvent event) {
+        if (event.getEntity() instanceof ServerPlayer player) {
+            announce(player);
+        }
+    }
+
+    @SubscribeEvent
+    public static void onPlayerLogout(PlayerEvent.PlayerLoggedOutEvent event) {
+        ANNOUNCED.remove(event.getEntity().getUUID());
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        ANNOUNCED.clear();
+    }
+
+    /**
+     * Send the player the hash of its current catalog, e.g. at login or after its permissions changed
+     */
+    public static void announce(ServerPlayer player) {
+        long hash = MorphCatalogView.hash(MorphCatalogView.build(player).toBytes());
+        ANNOUNCED.put(player.getUUID(), hash);
+        NetworkHandler.sendToPlayer(new MorphCatalogHashPacket(hash), player);
+        MorphMetrics.CATALOG_HASHES_SENT.increment();
+    }
+
+    static void onRequest(ServerPlayer player, long hash) {
+        if (ANNOUNCED.remove(player.getUUID()) == null) {
+            return;
+        }
+        // Rebuilt rather than kept around, since most clients never ask; the client keys it by the hash it gets here
+        byte[] catalog = MorphCatalogView.build(player).toBytes();
+        NetworkHandler.sendToPlayer(new MorphCatalogPacket(MorphCatalogView.hash(catalog), catalog), player);
+        MorphMetrics.CATALOG_SENT.increment();
+    }
+}
@@ -1,53 +1,264 @@
 package com.guikipt.pixelmonmorpher.network;
 
+import java.util.List;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Function;
 
 import com.guikipt.pixelmonmorpher.morph.MorphData;
 import com.guikipt.pixelmonmorpher.client.morph.ClientMorphCache;
+import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
 import net.neoforged.neoforge.network.handling.IPayloadContext;
 
 /**
  * Syncs a player's morph data to clients so rendering can mirror the server state.
+ *
+ * Wire format: a flag byte, then the player as an entity id varint (or a UUID when the entity may not
+ * exist on the client yet), then for a morph: species dex varint, form index varint, palette index varint,
+ * and size/width/height as unsigned shorts in 1/{@value MorphData#QUANTUM} steps. Species, form and palette
+ * fall back to strings when they have no id (unknown species, custom palettes).
+ *
+ * Every update carries the player's morph epoch, and the client drops anything not newer than what it holds.
+ * A delta update only carries the fields in {@code fields} and applies on top of the state at {@code baseEpoch};
+ * on the client a decoded delta's {@code morphData} holds just those fields.
+ *
+ * Decoding is strict: strings are capped at {@value #MAX_NAME_LENGTH} characters and unknown flag/field bits,
+ * negative epochs or ids, out-of-range palette ids and truncated input are rejected with a {@link DecoderException}.
  */
-public record MorphDataSyncPacket(UUID playerId, MorphData morphData) implements CustomPacketPayload {
+public record MorphDataSyncPacket(UUID playerId, int entityId, int epoch, int baseEpoch, int fields, MorphData morphData) implements CustomPacketPayload {
     public static final CustomPacketPayload.Type<MorphDataSyncPacket> TYPE =
         new CustomPacketPayload.Type<>(Objects.requireNonNull(NetworkHandler.MORPH_SYNC_ID));
 
+    // Entity id used when the player is identified by UUID
+    public static final int NO_ENTITY = -1;
+
+    // Common palettes get an id; index + 1 goes on the wire, 0 means a string follows
+    private static final List<String> PALETTES = MorphData.COMMON_PALETTES;
+
+    private static final int FLAG_MORPHED = 1;
+    private static final int FLAG_SHINY = 1 << 1;
+    private static final int FLAG_BY_UUID = 1 << 2;
+    private static final int FLAG_SPECIES_NAME = 1 << 3;
+    private static final int FLAG_FORM_NAME = 1 << 4;
+    private static final int FLAG_DELTA = 1 << 5;
+    private static final int ALL_FLAGS = (1 << 6) - 1;
+
+    // Longest species, form or palette name accepted on the wire
+    public static final int MAX_NAME_LENGTH = 64;
+
+    // Smallest possible entry: flag byte, entity id varint, epoch varint
+    static final int MIN_ENTRY_BYTES = 3;
+
+    /**
+     * Full state update. With {@link #NO_ENTITY} the player is sent by UUID, for syncs where
+     * the client may not have the entity yet (e.g. login).
+     */
+    public MorphDataSyncPacket(UUID playerId, int entityId, int epoch, MorphData morphData) {
+        this(playerId, entityId, epoch, 0, MorphData.ALL_FIELDS, morphData);
+    }
+
+    /**
+     * Update carrying only the changed fields of a morphed player's new state
+     */
+    public static MorphDataSyncPacket delta(int entityId, int epoch, int baseEpoch, int fields, MorphData morphData) {
+        // Form indices are relative to the species, so a form change always carries the species
+        if ((fields & MorphData.FIELD_FORM) != 0) {
+            fields |= MorphData.FIELD_SPECIES;
+        }
+        return new MorphDataSyncPacket(null, entityId, epoch, baseEpoch, fields, morphData);
+    }
+
+    public boolean isDelta() {
+        return fields != MorphData.ALL_FIELDS;
+    }
+
     @Override
     public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
         return TYPE;
     }
 
     public static MorphDataSyncPacket decode(FriendlyByteBuf buf) {
-        UUID playerId = buf.readUUID();
-        boolean isMorphed = buf.readBoolean();
-        MorphData data = new MorphData();
-        if (isMorphed) {
-            String species = buf.readUtf();
-            String formName = buf.readUtf();
-            boolean shiny = buf.readBoolean();
-            String palette = buf.readUtf();
-            float size = buf.readFloat();
-            float width = buf.readFloat();
-            float height = buf.readFloat();
-            data = new MorphData(species, formName, shiny, palette, size, width, height);
+        return decodeStrict(buf, MorphDataSyncPacket::decodeEntry, "morph sync entry");
+    }
+
+    /**
+     * Run a decoder so that nothing but a {@link DecoderException} leaves it: buffer underflows,
+     * oversized varints and other runtime failures on malformed input are wrapped in one
+     */
+    static <B extends ByteBuf, T> T decodeStrict(B buf, Function<B, T> decoder, String what) {
+        try {
+            return decoder.apply(buf);
+        } catch (DecoderException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new DecoderException("Malformed " + what, e);
+        }
+    }
+
+    private static MorphDataSyncPacket decodeEntry(FriendlyByteBuf buf) {
+        int flags = buf.readUnsignedByte();
+        if ((flags & ~ALL_FLAGS) != 0) {
+            throw new DecoderException("Unknown morph sync flags: " + flags);
+        }
+        UUID playerId = null;
+        int entityId = NO_ENTITY;
+        if ((flags & FLAG_BY_UUID) != 0) {
+            playerId = buf.readUUID();
         } else {
-            data.setMorphed(false);
+            entityId = readNonNegative(buf, "entity id");
+        }
+        int epoch = readNonNegative(buf, "epoch");
+
+        int baseEpoch = 0;
+        int fields = MorphData.ALL_FIELDS;
+        if ((flags & FLAG_DELTA) != 0) {
+            baseEpoch = readNonNegative(buf, "base epoch");
+            fields = buf.readUnsignedByte();
+            if (fields == 0 || (fields & ~MorphData.ALL_FIELDS) != 0 || baseEpoch >= epoch) {
+                throw new DecoderException("Malformed morph delta: fields " + fields + ", epochs " + baseEpoch + " -> " + epoch);
+            }
+        }
+
+        MorphData data = MorphData.EMPTY;
+        if ((flags & FLAG_MORPHED) != 0) {
+            Species species = null;
+            String speciesName = "";
+            if ((fields & MorphData.FIELD_SPECIES) != 0) {
+                if ((flags & FLAG_SPECIES_NAME) != 0) {
+                    speciesName = buf.readUtf(MAX_NAME_LENGTH);
+                } else {
+                    int dex = readNonNegative(buf, "dex number");
+                    species = PixelmonSpecies.fromNameOrDex(String.valueOf(dex)).orElse(null);
+                    speciesName = species != null ? species.getName() : String.valueOf(dex);
+                }
+            }
+
+            String formName = "";
+            if ((fields & MorphData.FIELD_FORM) != 0) {
+                if ((flags & FLAG_FORM_NAME) != 0) {
+                    formName = buf.readUtf(MAX_NAME_LENGTH);
+                } else {
+                    int formIndex = readNonNegative(buf, "form index");
+                    formName = species != null && formIndex < species.getForms().size()
+                        ? species.getForms().get(formIndex).getName()
+                        : "";
+                }
+            }
+
+            String palette = "";
+            if ((fields & MorphData.FIELD_PALETTE) != 0) {
+                int paletteId = buf.readVarInt();
+                if (paletteId < 0 || paletteId > PALETTES.size()) {
+                    throw new DecoderException("Unknown morph palette id: " + paletteId);
+                }
+                palette = paletteId > 0 ? PALETTES.get(paletteId - 1) : buf.readUtf(MAX_NAME_LENGTH);
+            }
+
+            // Unsigned shorts always dequantize to a finite size between 0 and 256
+            float size = (fields & MorphData.FIELD_SIZE) != 0 ? MorphData.dequantize(buf.readUnsignedShort()) : 0.0f;
+            float width = (fields & MorphData.FIELD_WIDTH) != 0 ? MorphData.dequantize(buf.readUnsignedShort()) : 0.0f;
+            float height = (fields & MorphData.FIELD_HEIGHT) != 0 ? MorphData.dequantize(buf.readUnsignedShort()) : 0.0f;
+            data = MorphData.of(speciesName, formName, (flags & FLAG_SHINY) != 0, palette, size, width, height);
+        }
+        return new MorphDataSyncPacket(playerId, entityId, epoch, baseEpoch, fields, data);
+    }
+
+    /**
+     * Read the entry count of a batch of updates, rejecting counts the remaining bytes can't hold
+     * so a forged count never sizes an allocation
+     */
+    public static int readEntryCount(FriendlyByteBuf buf) {
+        int count = buf.readVarInt();
+        if (count < 0 || count > buf.readableBytes() / MIN_ENTRY_BYTES) {
+            throw new DecoderException("Bad morph entry count " + count + " for " + buf.readableBytes() + " bytes");
+        }
+        return count;
+    }
+
+    private static int readNonNegative(FriendlyByteBuf buf, String what) {
+        int value = buf.readVarInt();
+        if (value < 0) {
+            throw new DecoderException("Negative morph " + what + ": " + value);
+        }
+        return value;
+    }
+
+    /**
+     * The player this update is for, looking the entity up on the client when it was sent by id
+     */
+    public UUID resolvePlayerId() {
+        if (playerId != null) {
+            return playerId;
+        }
+        net.minecraft.client.Minecraft mc = net.minecraft.client.Minecraft.getInstance();
+        if (mc.level == null) {
+            return null;
         }
-        return new MorphDataSyncPacket(playerId, data);
+        net.minecraft.world.entity.Entity entity = mc.level.getEntity(entityId);
+        return entity != null ? entity.getUUID() : null;
+    }
+
+    /**
+     * Apply this update to the client cache if it is newer than what the client holds.
+     * Must run on the client thread.
+     *
+     * @return the player that changed, or null if the update was stale or its player is unknown
+     */
+    public UUID applyOnClient() {
+        return applyOnClient(true);
+    }
+
+    /**
+     * @param refresh whether to refresh the player's dimensions right away
+     */
+    public UUID applyOnClient(boolean refresh) {
+        UUID id = resolvePlayerId();
+        if (id == null) {
+            return null;
+        }
+        MorphData data = mergeInto(ClientMorphCache.get(id), ClientMorphCache.getEpoch(id));
+        if (data == null) {
+            return null;
+        }
+
+        ClientMorphCache.setMorph(id, data, epoch, refresh);
+        return id;
+    }
+
+    /**
+     * The state a receiver ends up with after this update
+     *
+     * @param held      the state the receiver holds, or null if none
+     * @param heldEpoch the epoch of that state, or -1 if none
+     * @return the new state, or null if the update doesn't apply
+     */
+    public MorphData mergeInto(MorphData held, int heldEpoch) {
+        if (epoch <= heldEpoch) {
+            // Stale or already applied: no cache change and no entity rebuild
+            return null;
+        }
+        if (!isDelta()) {
+            return morphData;
+        }
+        if (held == null || heldEpoch != baseEpoch) {
+            // The state this delta was built against never arrived; wait for a full update
+            return null;
+        }
+        return held.withFields(morphData, fields);
     }
 
     public static void handle(MorphDataSyncPacket msg, IPayloadContext ctx) {
         ctx.enqueueWork(() -> {
             // Update the cache first
-            UUID playerId = msg.playerId;
+            UUID playerId = msg.applyOnClient();
             if (playerId == null) return;
-            
-            ClientMorphCache.setMorph(playerId, msg.morphData);
 
             // Force an additional dimension refresh to ensure it takes effect
             net.minecraft.client.Minecraft mc = net.minecraft.client.Minecraft.getInstance();
@@ -62,25 +273,105 @@ public record MorphDataSyncPacket(UUID playerId, MorphData morphData) implements
     }
 
     public static void encode(MorphDataSyncPacket msg, FriendlyByteBuf buf) {
-        UUID playerId = msg.playerId;
-        if (playerId != null) {
-            buf.writeUUID(playerId);
+        MorphData data = msg.morphData != null ? msg.morphData : MorphData.EMPTY;
+        boolean byUuid = msg.entityId < 0;
+
+        // Resolve registry ids; anything without one falls back to its name
+        Species species = null;
+        int formIndex = -1;
+        if (data.isMorphed() && (msg.fields & (MorphData.FIELD_SPECIES | MorphData.FIELD_FORM)) != 0) {
+            species = PixelmonSpecies.fromNameOrDex(Objects.requireNonNull(data.getSpeciesName())).orElse(null);
+            if (species != null) {
+                formIndex = MorphData.formIndex(species, data.getFormName());
+            }
+        }
+
+        int flags = 0;
+        if (data.isMorphed()) {
+            flags |= FLAG_MORPHED;
+            if (data.isShiny()) {
+                flags |= FLAG_SHINY;
+            }
+            if (species == null) {
+                flags |= FLAG_SPECIES_NAME;
+            }
+            if (formIndex < 0) {
+                flags |= FLAG_FORM_NAME;
+            }
+        }
+        if (byUuid) {
+            flags |= FLAG_BY_UUID;
+        }
+        boolean delta = msg.isDelta() && data.isMorphed();
+        if (delta) {
+            flags |= FLAG_DELTA;
+        }
+        buf.writeByte(flags);
+
+        if (byUuid) {
+            buf.writeUUID(msg.playerId != null ? msg.playerId : new UUID(0, 0));
         } else {
-            buf.writeUUID(new UUID(0, 0));
-        }
-        buf.writeBoolean(msg.morphData != null && msg.morphData.isMorphed());
-        if (msg.morphData != null && msg.morphData.isMorphed()) {
-            String speciesName = msg.morphData.getSpeciesName();
-            String formName = msg.morphData.getFormName();
-            String palette = msg.morphData.getPalette();
-            
-            buf.writeUtf(speciesName != null ? speciesName : "");
-            buf.writeUtf(formName != null ? formName : "");
-            buf.writeBoolean(msg.morphData.isShiny());
-            buf.writeUtf(palette != null ? palette : "");
-            buf.writeFloat(msg.morphData.getSize());
-            buf.writeFloat(msg.morphData.getWidth());
-            buf.writeFloat(msg.morphData.getHeight());
+            buf.writeVarInt(msg.entityId);
+        }
+        buf.writeVarInt(msg.epoch);
+
+        int fields = MorphData.ALL_FIELDS;
+        if (delta) {
+            fields = msg.fields;
+            buf.writeVarInt(msg.baseEpoch);
+            buf.writeByte(fields);
+        }
+
+        if (data.isMorphed()) {
+            if ((fields & MorphData.FIELD_SPECIES) != 0) {
+                if (species != null) {
+                    buf.writeVarInt(species.getDex());
+                } else {
+                    buf.writeUtf(Objects.requireNonNull(data.getSpeciesName()), MAX_NAME_LENGTH);
+                }
+            }
+
+            if ((fields & MorphData.FIELD_FORM) != 0) {
+                if (formIndex >= 0) {
+                    buf.writeVarInt(formIndex);
+                } else {
+                    buf.writeUtf(data.getFormName() != null ? data.getFormName() : "", MAX_NAME_LENGTH);
+                }
+            }
+
+            if ((fields & MorphData.FIELD_PALETTE) != 0) {
+                String palette = data.getPalette() != null ? data.getPalette() : "";
+                int paletteId = PALETTES.indexOf(palette) + 1;
+                buf.writeVarInt(paletteId);
+                if (paletteId == 0) {
+                    buf.writeUtf(palette, MAX_NAME_LENGTH);
+                }
+            }
+
+            if ((fields & MorphData.FIELD_SIZE) != 0) {
+                buf.writeShort(MorphData.quantize(data.getSize()));
+            }
+            if ((fields & MorphData.FIELD_WIDTH) != 0) {
+                buf.writeShort(MorphData.quantize(data.getWidth()));
+            }
+            if ((fields & MorphData.FIELD_HEIGHT) != 0) {
+                buf.writeShort(MorphData.quantize(data.getHeight()));
+            }
+        }
+    }
+
+    /**
+     * Serialize this update on its own, to be shared by every recipient
+     */
+    public byte[] toBytes() {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(16));
+        try {
+            encode(this, buf);
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            return bytes;
+        } finally {
+            buf.release();
         }
     }
 }
@@ -1,13 +1,16 @@
 package com.guikipt.pixelmonmorpher.network;
 
-import com.guikipt.pixelmonmorpher.morph.MorphData;
-import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
-import com.pixelmonmod.pixelmon.api.pokemon.Pokemon;
-import com.pixelmonmod.pixelmon.api.pokemon.PokemonFactory;
-import com.pixelmonmod.pixelmon.api.pokemon.species.Species;
+import com.guikipt.pixelmonmorpher.Config;
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.morph.MorphAuditLog;
+import com.guikipt.pixelmonmorpher.morph.MorphCatalogSnapshot;
+import com.guikipt.pixelmonmorpher.morph.MorphMetrics;
+import com.guikipt.pixelmonmorpher.morph.MorphRateLimiter;
+import com.guikipt.pixelmonmorpher.morph.MorphService;
+import com.guikipt.pixelmonmorpher.morph.MorphSpec;
 import com.pixelmonmod.pixelmon.api.pokemon.species.gender.Gender;
-import com.pixelmonmod.pixelmon.api.registries.PixelmonSpecies;
 import io.netty.buffer.ByteBuf;
+import io.netty.handler.codec.DecoderException;
 import net.minecraft.network.FriendlyByteBuf;
 import net.minecraft.network.chat.Component;
 import net.minecraft.network.codec.StreamCodec;
@@ -16,7 +19,11 @@ import net.minecraft.resources.ResourceLocation;
 import net.minecraft.server.level.ServerPlayer;
 import net.neoforged.neoforge.network.handling.IPayloadContext;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 import static com.guikipt.pixelmonmorpher.PixelmonMorpher.MODID;
 
@@ -33,6 +40,14 @@ public record MorphRequestPacket(
     int level
 ) implements CustomPacketPayload {
 
+    // Accepted ranges for client-supplied numbers
+    public static final float MIN_SIZE = 0.1f;
+    public static final float MAX_SIZE = 10.0f;
+    private static final int MAX_LEVEL = 1000;
+
+    // The request each player's current morph came from, for no-op detection before any resolve work
+    private static final Map<UUID, MorphRequestPacket> CURRENT_REQUESTS = new ConcurrentHashMap<>();
+
     public static final CustomPacketPayload.Type<MorphRequestPacket> TYPE =
         new CustomPacketPayload.Type<>(Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(MODID, "morph_request")));
 
@@ -43,26 +58,44 @@ public record MorphRequestPacket(
 
     private static void encode(ByteBuf buf, MorphRequestPacket msg) {
         FriendlyByteBuf friendly = new FriendlyByteBuf(Objects.requireNonNull(buf));
-        friendly.writeUtf(Objects.requireNonNull(msg.speciesName));
-        friendly.writeUtf(Objects.requireNonNull(msg.formName));
+        friendly.writeUtf(Objects.requireNonNull(msg.speciesName), MorphDataSyncPacket.MAX_NAME_LENGTH);
+        friendly.writeUtf(Objects.requireNonNull(msg.formName), MorphDataSyncPacket.MAX_NAME_LENGTH);
         friendly.writeBoolean(msg.isShiny);
-        friendly.writeUtf(Objects.requireNonNull(msg.palette));
+        friendly.writeUtf(Objects.requireNonNull(msg.palette), MorphDataSyncPacket.MAX_NAME_LENGTH);
         friendly.writeFloat(msg.size);
         friendly.writeEnum(Objects.requireNonNull(msg.gender));
         friendly.writeInt(msg.level);
     }
 
+    /**
+     * Strict decode: names are length-capped before any string is allocated, and out-of-range numbers
+     * or gender ordinals reject the packet instead of reaching the handler
+     */
     private static MorphRequestPacket decode(ByteBuf buf) {
+        return MorphDataSyncPacket.decodeStrict(buf, MorphRequestPacket::decodeFields, "morph request");
+    }
+
+    private static MorphRequestPacket decodeFields(ByteBuf buf) {
         FriendlyByteBuf friendly = new FriendlyByteBuf(Objects.requireNonNull(buf));
-        String speciesName = Objects.requireNonNull(friendly.readUtf());
-        String formName = Objects.requireNonNull(friendly.readUtf());
+        String speciesName = Objects.requireNonNull(friendly.readUtf(MorphDataSyncPacket.MAX_NAME_LENGTH));
+        String formName = Objects.requireNonNull(friendly.readUtf(MorphDataSyncPacket.MAX_NAME_LENGTH));
         boolean isShiny = friendly.readBoolean();
-        String palette = Objects.requireNonNull(friendly.readUtf());
+        String palette = Objects.requireNonNull(friendly.readUtf(MorphDataSyncPacket.MAX_NAME_LENGTH));
         float size = friendly.readFloat();
-        Gender gender = friendly.readEnum(Gender.class);
+
+        // Same wire format as readEnum, but an unknown ordinal is a decode error rather than an index exception
+        int ordinal = friendly.readVarInt();
+        Gender[] genders = Gender.values();
+        if (ordinal < 0 || ordinal >= genders.length) {
+            throw new DecoderException("Unknown gender ordinal in morph request: " + ordinal);
+        }
         int level = friendly.readInt();
 
-        return new MorphRequestPacket(speciesName, formName, isShiny, palette, size, gender, level);
+        MorphRequestPacket msg = new MorphRequestPacket(speciesName, formName, isShiny, palette, size, genders[ordinal], level);
+        if (!msg.inRange()) {
+            throw new DecoderException("Morph request out of range: size " + size + ", level " + level);
+        }
+        return msg;
     }
 
     @Override
@@ -71,99 +104,132 @@ public record MorphRequestPacket(
     }
 
     /**
-     * Handle the packet on the server side
+     * Whether the client-supplied numbers are within the accepted ranges
      */
-    public static void handle(MorphRequestPacket msg, IPayloadContext ctx) {
-        ctx.enqueueWork(() -> {
-            if (ctx.flow().isServerbound() && ctx.player() instanceof ServerPlayer player) {
-                // Get species from registry
-                Species species = PixelmonSpecies.fromNameOrDex(msg.speciesName).orElse(null);
-                if (species == null) {
-                    player.sendSystemMessage(Objects.requireNonNull(Component.literal("§cUnknown Pokémon: " + msg.speciesName)));
-                    return;
-                }
+    private boolean inRange() {
+        return Float.isFinite(size) && size >= MIN_SIZE && size <= MAX_SIZE && level >= 0 && level <= MAX_LEVEL;
+    }
 
-                // Create Pokemon to get proper form and palette
-                Pokemon pokemon = PokemonFactory.create(species);
-                pokemon.setShiny(msg.isShiny);
-                pokemon.setGender(msg.gender);
-                pokemon.setLevel(msg.level);
-
-                // Handle form if specified
-                if (msg.formName != null && !msg.formName.isEmpty() && !msg.formName.equalsIgnoreCase("base")) {
-                    try {
-                        var form = species.getForm(msg.formName);
-                        if (form != null) {
-                            pokemon.setForm(form);
-                            com.guikipt.pixelmonmorpher.PixelmonMorpher.LOGGER.info("MorphRequest: Applied form '{}' to {}", msg.formName, species.getName());
-                        } else {
-                            com.guikipt.pixelmonmorpher.PixelmonMorpher.LOGGER.warn("MorphRequest: Form '{}' not found for {}", msg.formName, species.getName());
-                        }
-                    } catch (Exception e) {
-                        com.guikipt.pixelmonmorpher.PixelmonMorpher.LOGGER.error("MorphRequest: Error applying form '{}' to {}", msg.formName, species.getName(), e);
-                        // Keep base form
-                    }
-                }
+    /**
+     * Forget the request behind a player's morph; called whenever the morph changes or the player leaves
+     */
+    public static void forget(UUID playerId) {
+        CURRENT_REQUESTS.remove(playerId);
+    }
+
+    public static void clear() {
+        CURRENT_REQUESTS.clear();
+    }
 
-                // Get the ACTUAL form name from the pokemon (important!)
-                String actualFormName = pokemon.getForm().getName();
-                com.guikipt.pixelmonmorpher.PixelmonMorpher.LOGGER.info("MorphRequest: Requested form='{}', Actual form='{}' for {}",
-                    msg.formName, actualFormName, pokemon.getSpecies().getName());
+    /**
+     * Handle the packet on the server side.
+     * Runs on the network thread: throttling, range checks and species/form validation against the
+     * catalog snapshot happen here, and only a validated request (already resolved when the catalog is warm)
+     * is handed to the main thread to be committed and synced.
+     */
+    public static void handle(MorphRequestPacket msg, IPayloadContext ctx) {
+        if (!ctx.flow().isServerbound() || !(ctx.player() instanceof ServerPlayer player)) {
+            return;
+        }
+
+        if (MorphTrafficRecorder.isRecording()) {
+            MorphTrafficRecorder.recordRequest(player, msg);
+        }
+
+        // Throttle before any Pixelmon work runs; only the first throttled request of a window queues a message
+        if (!MorphRateLimiter.tryAcquire(player.getUUID())) {
+            MorphMetrics.REQUESTS_THROTTLED.increment();
+            String feedback = Config.THROTTLE_MESSAGE.get();
+            if (!feedback.isEmpty() && MorphRateLimiter.tryNotify(player.getUUID())) {
+                reply(ctx, player, feedback);
+            }
+            return;
+        }
+
+        // Numeric ranges; already enforced by decode, but in-memory connections skip the codec
+        if (!msg.inRange()) {
+            MorphMetrics.REQUESTS_INVALID.increment();
+            return;
+        }
+
+        // Asking again for the exact request (every field, gender and level included) behind the current morph is a no-op
+        if (msg.equals(CURRENT_REQUESTS.get(player.getUUID()))) {
+            MorphMetrics.REQUESTS_NOOP.increment();
+            return;
+        }
+
+        // Species and form against the immutable catalog
+        Resolution resolution = msg.resolveOffThread();
+        if (resolution == null) {
+            MorphMetrics.REQUESTS_INVALID.increment();
+            reply(ctx, player, "§cUnknown Pokémon: " + msg.speciesName);
+            return;
+        }
+        MorphSpec spec = resolution.spec();
+        MorphService.ResolvedMorph cached = resolution.cached();
 
-                // Get dimensions from the Pokémon entity
-                float width = 0.6f;  // Default player width
-                float height = 1.8f; // Default player height
+        ctx.enqueueWork(() -> {
+            MorphMetrics.REQUESTS_ACCEPTED.increment();
 
+            // A species/form that was never resolved still needs its one-off probe here
+            MorphService.ResolvedMorph morph = cached;
+            if (morph == null) {
                 try {
-                    var entity = pokemon.getOrSpawnPixelmon(null);
-                    if (entity != null) {
-                        width = entity.getBbWidth();
-                        height = entity.getBbHeight();
-
-                        // Clamp dimensions to reasonable values
-                        width = Math.max(0.3f, Math.min(3.0f, width));
-                        height = Math.max(0.5f, Math.min(3.0f, height));
-                    }
-                } catch (Exception e) {
-                    // Use defaults if entity creation fails
-                }
-
-                // Apply size multiplier
-                width *= msg.size;
-                height *= msg.size;
-
-                // Create morph data with the actual form name from the pokemon
-                MorphData morphData = new MorphData(
-                    pokemon.getSpecies().getName(),
-                    actualFormName, // Use the actual form name from the pokemon, not msg.formName
-                    pokemon.isShiny(),
-                    msg.palette != null && !msg.palette.equals("none") ? msg.palette : pokemon.getPalette().getName(),
-                    msg.size,
-                    width,
-                    height
-                );
-
-                // Apply the morph
-                PlayerMorphAttachment.setMorphData(player, morphData);
-
-                // CRITICAL: Force dimensions update immediately
-                player.refreshDimensions();
-
-                // Sync to all clients
-                NetworkHandler.sendToAll(new MorphDataSyncPacket(player.getUUID(), morphData));
-
-                // Build display name
-                String displayName = pokemon.getSpecies().getName();
-                if (msg.isShiny) {
-                    displayName = "Shiny " + displayName;
-                }
-                if (actualFormName != null && !actualFormName.isEmpty() && !actualFormName.equalsIgnoreCase("base")) {
-                    displayName += " (" + actualFormName + ")";
+                    morph = MorphService.resolve(spec, false);
+                } catch (MorphService.MorphException e) {
+                    player.sendSystemMessage(Objects.requireNonNull(Component.literal(Objects.requireNonNull(e.getMessage()))));
+                    return;
                 }
+            }
 
-                // Send success message
-                player.sendSystemMessage(Objects.requireNonNull(Component.literal("§aYou have morphed into " + displayName + "!")));
+            // Apply the morph and sync it; a morph rejected by the morph policy has already told the player why
+            if (MorphService.apply(List.of(player), morph, MorphAuditLog.Source.MENU_REQUEST).isEmpty()) {
+                return;
             }
+            CURRENT_REQUESTS.put(player.getUUID(), msg);
+
+            // Send success message
+            player.sendSystemMessage(Objects.requireNonNull(Component.literal("§aYou have morphed into " + morph.displayName() + "!")));
         });
     }
+
+    /**
+     * A request checked against the catalog; {@code cached} is null when the species/form was never resolved
+     * or the palette is unknown to it
+     */
+    record Resolution(MorphSpec spec, MorphService.ResolvedMorph cached) {
+    }
+
+    /**
+     * Look the species and form up in the catalog snapshot and resolve from the trait table when warm.
+     * Safe off the main thread; an unknown form falls back to the base form.
+     *
+     * @return the resolution, or null if the species is unknown
+     */
+    Resolution resolveOffThread() {
+        MorphCatalogSnapshot.SpeciesEntry species = MorphCatalogSnapshot.get().species(speciesName);
+        if (species == null) {
+            return null;
+        }
+        MorphCatalogSnapshot.FormEntry form = species.form(formName);
+        if (form == null) {
+            // Keep base form
+            PixelmonMorpher.LOGGER.warn("Morph: Form '{}' not found for {}", formName, species.species().getName());
+            form = species.form(null);
+            if (form == null) {
+                return null;
+            }
+        }
+
+        MorphSpec spec = new MorphSpec(species.species().getName(), form.form().getName(), isShiny, palette, size, gender, level);
+        if (!MorphService.knownPalette(form.form(), palette)) {
+            // Leave it to the full resolve, which rejects it with a message
+            return new Resolution(spec, null);
+        }
+        return new Resolution(spec, MorphService.resolveCached(species, form, spec));
+    }
+
+    private static void reply(IPayloadContext ctx, ServerPlayer player, String message) {
+        ctx.enqueueWork(() -> player.sendSystemMessage(Objects.requireNonNull(Component.literal(message))));
+    }
 }
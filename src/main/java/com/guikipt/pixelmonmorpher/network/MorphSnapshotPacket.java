@@ -0,0 +1,131 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import net.minecraft.network.codec.StreamCodec;
+import net.minecraft.network.protocol.common.custom.CustomPacketPayload;
+import net.minecraft.resources.ResourceLocation;
+import net.neoforged.neoforge.network.handling.IPayloadContext;
+
+/**
+ * Every morphed player a client can see, sent once at login and after a dimension change
+ * instead of one sync per tracked player. Entries are identified by UUID (the entities may not
+ * exist on the client yet) and the body is deflate-compressed.
+ *
+ * Wire format: entry count varint, uncompressed length varint, compressed bytes.
+ */
+public record MorphSnapshotPacket(List<MorphDataSyncPacket> entries) implements CustomPacketPayload {
+    public static final CustomPacketPayload.Type<MorphSnapshotPacket> TYPE =
+        new CustomPacketPayload.Type<>(Objects.requireNonNull(ResourceLocation.fromNamespaceAndPath(PixelmonMorpher.MODID, "morph_snapshot")));
+
+    public static final StreamCodec<FriendlyByteBuf, MorphSnapshotPacket> STREAM_CODEC = StreamCodec.of(
+        (buf, packet) -> MorphSnapshotPacket.encode(packet, buf),
+        MorphSnapshotPacket::decode
+    );
+
+    // Refuse to inflate anything larger than this
+    static final int MAX_UNCOMPRESSED = 2 * 1024 * 1024;
+
+    // Smallest possible entry: flag byte, UUID, epoch varint
+    static final int MIN_ENTRY_BYTES = 18;
+
+    @Override
+    public CustomPacketPayload.Type<? extends CustomPacketPayload> type() {
+        return TYPE;
+    }
+
+    public static void encode(MorphSnapshotPacket msg, FriendlyByteBuf buf) {
+        FriendlyByteBuf raw = new FriendlyByteBuf(Unpooled.buffer());
+        try {
+            for (MorphDataSyncPacket entry : msg.entries) {
+                MorphDataSyncPacket.encode(entry, raw);
+            }
+            byte[] input = new byte[raw.readableBytes()];
+            raw.readBytes(input);
+
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try {
+                deflater.setInput(input);
+                deflater.finish();
+                ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, input.length / 2));
+                byte[] chunk = new byte[4096];
+                while (!deflater.finished()) {
+                    out.write(chunk, 0, deflater.deflate(chunk));
+                }
+
+                buf.writeVarInt(msg.entries.size());
+                buf.writeVarInt(input.length);
+                buf.writeByteArray(out.toByteArray());
+            } finally {
+                deflater.end();
+            }
+        } finally {
+            raw.release();
+        }
+    }
+
+    public static MorphSnapshotPacket decode(FriendlyByteBuf buf) {
+        return MorphDataSyncPacket.decodeStrict(buf, MorphSnapshotPacket::decodeEntries, "morph snapshot");
+    }
+
+    private static MorphSnapshotPacket decodeEntries(FriendlyByteBuf buf) {
+        int count = buf.readVarInt();
+        int length = buf.readVarInt();
+        if (length < 0 || length > MAX_UNCOMPRESSED) {
+            throw new DecoderException("Morph snapshot too large: " + length);
+        }
+        if (count < 0 || count > length / MIN_ENTRY_BYTES) {
+            throw new DecoderException("Bad morph snapshot entry count " + count + " for " + length + " bytes");
+        }
+        byte[] compressed = buf.readByteArray(MAX_UNCOMPRESSED);
+
+        byte[] input = new byte[length];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(compressed);
+            int read = inflater.inflate(input);
+            if (read != length) {
+                throw new DecoderException("Morph snapshot length mismatch: " + read + " != " + length);
+            }
+        } catch (DataFormatException e) {
+            throw new DecoderException("Corrupt morph snapshot", e);
+        } finally {
+            inflater.end();
+        }
+
+        FriendlyByteBuf raw = new FriendlyByteBuf(Unpooled.wrappedBuffer(input));
+        List<MorphDataSyncPacket> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(MorphDataSyncPacket.decode(raw));
+        }
+        if (raw.isReadable()) {
+            throw new DecoderException("Morph snapshot has " + raw.readableBytes() + " trailing bytes");
+        }
+        return new MorphSnapshotPacket(entries);
+    }
+
+    public static void handle(MorphSnapshotPacket msg, IPayloadContext ctx) {
+        ctx.enqueueWork(() -> {
+            // Players already in the level (the local player included) are refreshed now;
+            // players not loaded yet read their morphed size when they are added
+            net.minecraft.client.Minecraft mc = net.minecraft.client.Minecraft.getInstance();
+            for (MorphDataSyncPacket entry : msg.entries) {
+                UUID id = entry.resolvePlayerId();
+                boolean loaded = id != null && mc.level != null && mc.level.getPlayerByUUID(id) != null;
+                entry.applyOnClient(loaded);
+            }
+        });
+    }
+}
@@ -0,0 +1,123 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+import com.guikipt.pixelmonmorpher.morph.MorphData;
+import com.guikipt.pixelmonmorpher.morph.MorphMetrics;
+import com.guikipt.pixelmonmorpher.morph.MorphOfflineIndex;
+import com.guikipt.pixelmonmorpher.morph.MorphTrackingIndex;
+import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
+
+import net.minecraft.server.level.ServerPlayer;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+import net.neoforged.neoforge.event.tick.ServerTickEvent;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Outbound morph syncs, coalesced per player and flushed once at the end of the server tick.
+ * Only the player is queued; its state is read at flush time, so the last write in a tick wins and
+ * each (player, viewer) pair gets at most one update per tick, packed into one packet per viewer.
+ * Identical updates (the same full state, or the same delta from the same base) are encoded once
+ * and the bytes shared by every viewer that receives them.
+ * The flush also writes each changed morph behind to the {@link MorphOfflineIndex}.
+ */
+@EventBusSubscriber(modid = PixelmonMorpher.MODID)
+public class MorphSyncQueue {
+
+    private static final Set<ServerPlayer> DIRTY = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Queue a sync of the player's current morph state
+     */
+    public static void enqueue(ServerPlayer player) {
+        MorphMetrics.SYNCS_QUEUED.increment();
+        if (!DIRTY.add(player)) {
+            MorphMetrics.SYNCS_COALESCED.increment();
+        }
+    }
+
+    /**
+     * Whether the player has a sync waiting for the end-of-tick flush
+     */
+    public static boolean isQueued(ServerPlayer player) {
+        return DIRTY.contains(player);
+    }
+
+    @SubscribeEvent
+    public static void onServerTick(ServerTickEvent.Post event) {
+        flush();
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        DIRTY.clear();
+        MorphMetrics.reset();
+    }
+
+    /**
+     * Send each viewer the updates of the players it tracks (and its own), as one packet per viewer.
+     * Each player's epoch is bumped once; each viewer gets a delta against what it was last sent,
+     * or nothing if it already holds this state.
+     * Players that start tracking later get the current state from the tracking handler.
+     */
+    private static void flush() {
+        if (DIRTY.isEmpty()) {
+            return;
+        }
+
+        Map<ServerPlayer, List<MorphDataSyncPacket>> byViewer = new HashMap<>();
+        Map<MorphDataSyncPacket, byte[]> encoded = new HashMap<>();
+        Iterator<ServerPlayer> iterator = DIRTY.iterator();
+        while (iterator.hasNext()) {
+            ServerPlayer target = iterator.next();
+            iterator.remove();
+            if (target.hasDisconnected()) {
+                continue;
+            }
+
+            MorphData data = PlayerMorphAttachment.getMorphData(target);
+            MorphOfflineIndex.update(target.getUUID(), data);
+            int epoch = MorphSyncTracker.nextEpoch(target);
+            MorphMetrics.SYNCS_FLUSHED.increment();
+
+            queue(byViewer, target, target, data, epoch);
+            for (ServerPlayer watcher : MorphTrackingIndex.watchers(target)) {
+                queue(byViewer, watcher, target, data, epoch);
+            }
+        }
+
+        byViewer.forEach((viewer, packets) -> {
+            List<byte[]> bytes = new ArrayList<>(packets.size());
+            for (MorphDataSyncPacket packet : packets) {
+                bytes.add(encoded.computeIfAbsent(packet, MorphDataSyncPacket::toBytes));
+            }
+            NetworkHandler.sendToPlayer(new MorphBulkSyncPacket(packets, bytes), viewer);
+            MorphMetrics.PACKETS_SENT.increment();
+        });
+        MorphMetrics.ENTRIES_ENCODED.add(encoded.size());
+
+        if (MorphTrafficRecorder.isRecording()) {
+            Map<MorphDataSyncPacket, List<Integer>> viewers = new HashMap<>();
+            byViewer.forEach((viewer, packets) -> packets.forEach(
+                packet -> viewers.computeIfAbsent(packet, p -> new ArrayList<>()).add(viewer.getId())));
+            viewers.forEach((packet, ids) -> MorphTrafficRecorder.recordSync(encoded.get(packet), ids));
+        }
+    }
+
+    private static void queue(Map<ServerPlayer, List<MorphDataSyncPacket>> byViewer, ServerPlayer viewer, ServerPlayer target, MorphData data, int epoch) {
+        MorphDataSyncPacket packet = MorphSyncTracker.packetFor(viewer, target, data, epoch);
+        if (packet == null) {
+            MorphMetrics.SYNCS_SUPPRESSED.increment();
+            return;
+        }
+        byViewer.computeIfAbsent(viewer, v -> new ArrayList<>()).add(packet);
+    }
+}
@@ -0,0 +1,127 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import com.guikipt.pixelmonmorpher.morph.ActiveMorphRegistry;
+import com.guikipt.pixelmonmorpher.morph.MorphData;
+import com.guikipt.pixelmonmorpher.morph.PlayerMorphAttachment;
+
+import net.minecraft.server.level.ServerPlayer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Server-side morph epochs and what each client was last sent.
+ *
+ * Every morph change bumps the player's epoch. Epochs live for the whole server session (not just the
+ * player's), so a relog never reuses an epoch a watching client already holds. Knowing the last state
+ * sent to a viewer lets an update carry only the fields that changed.
+ */
+public class MorphSyncTracker {
+
+    private record Sent(MorphData data, int epoch) {
+    }
+
+    private static final Map<UUID, Integer> EPOCHS = new ConcurrentHashMap<>();
+
+    // viewer -> target -> last state sent to that viewer
+    private static final Map<UUID, Map<UUID, Sent>> SENT = new ConcurrentHashMap<>();
+
+    /**
+     * Bump and return a player's morph epoch; call once per morph change
+     */
+    public static int nextEpoch(ServerPlayer player) {
+        return EPOCHS.merge(player.getUUID(), 1, Integer::sum);
+    }
+
+    public static int currentEpoch(ServerPlayer player) {
+        return EPOCHS.getOrDefault(player.getUUID(), 0);
+    }
+
+    /**
+     * Build the update for one viewer: a delta against what it was last sent, or a full state.
+     * Records the result as sent.
+     *
+     * @return the update, or null if the viewer already holds exactly this state
+     */
+    public static MorphDataSyncPacket packetFor(ServerPlayer viewer, ServerPlayer target, MorphData data, int epoch) {
+        Map<UUID, Sent> sent = SENT.computeIfAbsent(viewer.getUUID(), id -> new ConcurrentHashMap<>());
+        Sent previous = sent.get(target.getUUID());
+
+        // Morph data is interned, so an unchanged state is the same instance; keep the epoch the client holds
+        if (previous != null && previous.data() == data && previous.epoch() < epoch) {
+            return null;
+        }
+        sent.put(target.getUUID(), new Sent(data, epoch));
+
+        if (previous != null && previous.data().isMorphed() && data.isMorphed() && previous.epoch() < epoch) {
+            return MorphDataSyncPacket.delta(target.getId(), epoch, previous.epoch(), previous.data().diff(data), data);
+        }
+        return new MorphDataSyncPacket(target.getUUID(), target.getId(), epoch, data);
+    }
+
+    /**
+     * Build the snapshot of every morphed player in the viewer's level (plus the viewer itself)
+     * and record its entries as sent
+     */
+    public static MorphSnapshotPacket snapshot(ServerPlayer viewer) {
+        Map<UUID, Sent> sent = SENT.computeIfAbsent(viewer.getUUID(), id -> new ConcurrentHashMap<>());
+        List<MorphDataSyncPacket> entries = new ArrayList<>();
+
+        // By UUID: the client may not have these entities (or its own) yet
+        MorphData self = PlayerMorphAttachment.getMorphData(viewer);
+        int selfEpoch = currentEpoch(viewer);
+        sent.put(viewer.getUUID(), new Sent(self, selfEpoch));
+        entries.add(new MorphDataSyncPacket(viewer.getUUID(), MorphDataSyncPacket.NO_ENTITY, selfEpoch, self));
+
+        for (ServerPlayer target : ActiveMorphRegistry.active()) {
+            if (target == viewer || target.level() != viewer.level()) {
+                continue;
+            }
+            MorphData data = PlayerMorphAttachment.getMorphData(target);
+            int epoch = currentEpoch(target);
+            sent.put(target.getUUID(), new Sent(data, epoch));
+            entries.add(new MorphDataSyncPacket(target.getUUID(), MorphDataSyncPacket.NO_ENTITY, epoch, data));
+        }
+        return new MorphSnapshotPacket(entries);
+    }
+
+    /**
+     * Whether the viewer was already sent the target's state at this epoch (e.g. by a snapshot)
+     */
+    public static boolean isCurrent(ServerPlayer viewer, ServerPlayer target, int epoch) {
+        Map<UUID, Sent> sent = SENT.get(viewer.getUUID());
+        Sent previous = sent != null ? sent.get(target.getUUID()) : null;
+        return previous != null && previous.epoch() == epoch;
+    }
+
+    /**
+     * The viewer stopped tracking the target; its next update will be a full state
+     */
+    public static void forget(ServerPlayer viewer, ServerPlayer target) {
+        Map<UUID, Sent> sent = SENT.get(viewer.getUUID());
+        if (sent != null) {
+            sent.remove(target.getUUID());
+        }
+    }
+
+    /**
+     * Forget a player that left the server, both as a viewer and as a target. Its epoch is kept.
+     */
+    public static void remove(ServerPlayer player) {
+        SENT.remove(player.getUUID());
+        for (Map<UUID, Sent> sent : SENT.values()) {
+            sent.remove(player.getUUID());
+        }
+    }
+
+    /**
+     * Drop all state, used when the server stops
+     */
+    public static void clear() {
+        EPOCHS.clear();
+        SENT.clear();
+    }
+}
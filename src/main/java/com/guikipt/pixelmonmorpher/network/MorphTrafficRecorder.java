@@ -0,0 +1,185 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import com.guikipt.pixelmonmorpher.PixelmonMorpher;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import net.minecraft.server.MinecraftServer;
+import net.minecraft.server.level.ServerPlayer;
+import net.minecraft.world.level.storage.LevelResource;
+import net.neoforged.bus.api.SubscribeEvent;
+import net.neoforged.fml.common.EventBusSubscriber;
+import net.neoforged.neoforge.event.server.ServerStoppedEvent;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Opt-in capture of morph traffic for offline replay with {@link MorphTrafficReplay}.
+ * Records every outbound morph sync entry (once, with the viewers that received it) and every inbound
+ * morph request, in their wire encoding, to {@code <world>/pixelmonmorpher/captures}.
+ *
+ * Layout: magic, format version, start time in epoch millis, then per record:
+ * kind byte, ticks since the previous record (varint), viewer count (varint), each viewer's entity id (varint),
+ * length (varint), payload. A request's only viewer is the player that sent it.
+ */
+@EventBusSubscriber(modid = PixelmonMorpher.MODID)
+public class MorphTrafficRecorder {
+
+    static final int MAGIC = 0x504D5452; // "PMTR"
+    static final int FORMAT_VERSION = 2;
+
+    static final int KIND_SYNC = 1;
+    static final int KIND_REQUEST = 2;
+
+    static final String EXTENSION = ".morphcap";
+
+    private static volatile DataOutputStream out;
+    private static MinecraftServer server;
+    private static Path path;
+    private static int lastTick;
+    private static long records;
+
+    public static boolean isRecording() {
+        return out != null;
+    }
+
+    /**
+     * Start a new capture file
+     *
+     * @return the file being written
+     */
+    public static synchronized Path start(MinecraftServer server) throws IOException {
+        if (out != null) {
+            throw new IOException("Already recording to " + path.getFileName());
+        }
+        Path dir = capturesDir(server);
+        Files.createDirectories(dir);
+        String name = new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date());
+
+        // Never overwrite an earlier capture; a second capture in the same second gets a suffix
+        Path file = dir.resolve(name + EXTENSION);
+        OutputStream created = null;
+        for (int suffix = 1; created == null; suffix++) {
+            try {
+                created = Files.newOutputStream(file, StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            } catch (FileAlreadyExistsException e) {
+                file = dir.resolve(name + "_" + suffix + EXTENSION);
+            }
+        }
+
+        DataOutputStream stream = new DataOutputStream(new BufferedOutputStream(created, 64 * 1024));
+        stream.writeInt(MAGIC);
+        stream.writeInt(FORMAT_VERSION);
+        stream.writeLong(System.currentTimeMillis());
+
+        MorphTrafficRecorder.server = server;
+        MorphTrafficRecorder.path = file;
+        lastTick = server.getTickCount();
+        records = 0;
+        out = stream;
+        return file;
+    }
+
+    /**
+     * Finish the current capture
+     *
+     * @return the number of records written, or -1 if nothing was being recorded
+     */
+    public static synchronized long stop() {
+        DataOutputStream stream = out;
+        if (stream == null) {
+            return -1;
+        }
+        out = null;
+        server = null;
+        try {
+            stream.close();
+        } catch (IOException e) {
+            PixelmonMorpher.LOGGER.error("Failed to close morph capture {}", path, e);
+        }
+        PixelmonMorpher.LOGGER.info("Morph capture {} finished with {} records", path.getFileName(), records);
+        return records;
+    }
+
+    /**
+     * Record one encoded sync entry and the entity ids of the viewers it was sent to
+     */
+    public static void recordSync(byte[] entry, List<Integer> viewers) {
+        write(KIND_SYNC, viewers, entry);
+    }
+
+    /**
+     * Record sync entries sent to one viewer
+     */
+    public static void recordSyncs(ServerPlayer viewer, List<MorphDataSyncPacket> entries) {
+        List<Integer> viewers = List.of(viewer.getId());
+        for (MorphDataSyncPacket entry : entries) {
+            write(KIND_SYNC, viewers, entry.toBytes());
+        }
+    }
+
+    /**
+     * Record an inbound morph request; called from the network thread
+     */
+    public static void recordRequest(ServerPlayer sender, MorphRequestPacket msg) {
+        ByteBuf buf = Unpooled.buffer(32);
+        try {
+            MorphRequestPacket.CODEC.encode(buf, msg);
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            write(KIND_REQUEST, List.of(sender.getId()), bytes);
+        } finally {
+            buf.release();
+        }
+    }
+
+    public static Path capturesDir(MinecraftServer server) {
+        return server.getWorldPath(LevelResource.ROOT).resolve(PixelmonMorpher.MODID).resolve("captures");
+    }
+
+    @SubscribeEvent
+    public static void onServerStopped(ServerStoppedEvent event) {
+        stop();
+    }
+
+    private static synchronized void write(int kind, List<Integer> viewers, byte[] payload) {
+        DataOutputStream stream = out;
+        if (stream == null) {
+            return;
+        }
+        try {
+            int tick = server.getTickCount();
+            stream.writeByte(kind);
+            writeVarInt(stream, Math.max(0, tick - lastTick));
+            writeVarInt(stream, viewers.size());
+            for (int viewer : viewers) {
+                writeVarInt(stream, viewer);
+            }
+            writeVarInt(stream, payload.length);
+            stream.write(payload);
+            lastTick = tick;
+            records++;
+        } catch (IOException e) {
+            PixelmonMorpher.LOGGER.error("Morph capture write failed, stopping capture", e);
+            stop();
+        }
+    }
+
+    private static void writeVarInt(DataOutputStream stream, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            stream.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        stream.writeByte(value);
+    }
+}
@@ -0,0 +1,144 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import com.guikipt.pixelmonmorpher.morph.MorphData;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Headless replay of a {@link MorphTrafficRecorder} capture at full speed, for benchmarking codec and sync changes
+ * against real sessions. Sync entries are decoded and merged into the state of each viewer that received them,
+ * the way that viewer's client cache merges them (epochs and deltas, without entity refreshes); requests are decoded and checked against the catalog and
+ * trait table the way the network thread does. Each record's decode + handle time is measured.
+ */
+public class MorphTrafficReplay {
+
+    /**
+     * Result of a replay; latencies are in nanoseconds
+     */
+    public record Report(int syncs, int requests, int rejected, int applied, int coldRequests, long bytes, long deliveries,
+                         int ticks, long elapsedNanos, long p50, long p90, long p99, long max) {
+
+        public double packetsPerSecond() {
+            return elapsedNanos > 0 ? (syncs + requests) * 1e9 / elapsedNanos : 0.0;
+        }
+
+        public double bytesPerSecond() {
+            return elapsedNanos > 0 ? bytes * 1e9 / elapsedNanos : 0.0;
+        }
+    }
+
+    /**
+     * Replay a capture file on the calling thread
+     */
+    public static Report run(Path path) throws IOException {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(Files.readAllBytes(path)));
+        if (buf.readableBytes() < 16 || buf.readInt() != MorphTrafficRecorder.MAGIC) {
+            throw new IOException("Not a morph capture: " + path.getFileName());
+        }
+        int version = buf.readInt();
+        if (version != MorphTrafficRecorder.FORMAT_VERSION) {
+            throw new IOException("Unsupported morph capture version " + version);
+        }
+        buf.readLong(); // start time
+
+        // Headless receiver state per viewer entity id, keyed by UUID or entity id as the entries identify players;
+        // deltas are relative to what each viewer was sent, so viewers never share state
+        Map<Integer, Map<Object, MorphData>> held = new HashMap<>();
+        Map<Integer, Map<Object, Integer>> epochs = new HashMap<>();
+
+        long[] latencies = new long[256];
+        int count = 0;
+        int syncs = 0;
+        int requests = 0;
+        int rejected = 0;
+        int applied = 0;
+        int cold = 0;
+        long bytes = 0;
+        long deliveries = 0;
+        int ticks = 0;
+
+        long started = System.nanoTime();
+        while (buf.isReadable()) {
+            int kind = buf.readUnsignedByte();
+            ticks += buf.readVarInt();
+            int recipients = buf.readVarInt();
+            if (recipients < 0 || recipients > buf.readableBytes()) {
+                throw new IOException("Bad morph capture viewer count at byte " + buf.readerIndex());
+            }
+            int[] viewers = new int[recipients];
+            for (int i = 0; i < recipients; i++) {
+                viewers[i] = buf.readVarInt();
+            }
+            int length = buf.readVarInt();
+            if (length < 0 || length > buf.readableBytes()) {
+                throw new IOException("Truncated morph capture record at byte " + buf.readerIndex());
+            }
+            FriendlyByteBuf payload = new FriendlyByteBuf(buf.readSlice(length));
+            bytes += length;
+
+            long start = System.nanoTime();
+            try {
+                if (kind == MorphTrafficRecorder.KIND_SYNC) {
+                    syncs++;
+                    deliveries += recipients;
+                    MorphDataSyncPacket packet = MorphDataSyncPacket.decode(payload);
+                    Object key = packet.playerId() != null ? packet.playerId() : packet.entityId();
+                    for (int viewer : viewers) {
+                        Map<Object, MorphData> viewerHeld = held.computeIfAbsent(viewer, v -> new HashMap<>());
+                        Map<Object, Integer> viewerEpochs = epochs.computeIfAbsent(viewer, v -> new HashMap<>());
+                        MorphData data = packet.mergeInto(viewerHeld.get(key), viewerEpochs.getOrDefault(key, -1));
+                        if (data != null) {
+                            viewerHeld.put(key, data);
+                            viewerEpochs.put(key, packet.epoch());
+                            applied++;
+                        }
+                    }
+                } else if (kind == MorphTrafficRecorder.KIND_REQUEST) {
+                    requests++;
+                    deliveries += recipients;
+                    MorphRequestPacket.Resolution resolution = MorphRequestPacket.CODEC.decode(payload).resolveOffThread();
+                    if (resolution == null) {
+                        rejected++;
+                    } else if (resolution.cached() == null) {
+                        cold++;
+                    }
+                } else {
+                    throw new IOException("Unknown morph capture record kind " + kind);
+                }
+            } catch (IOException e) {
+                throw e;
+            } catch (RuntimeException e) {
+                // Decode failures count as rejected, as they would on a live connection
+                rejected++;
+            }
+            long latency = System.nanoTime() - start;
+
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latency;
+        }
+        long elapsed = System.nanoTime() - started;
+
+        Arrays.sort(latencies, 0, count);
+        return new Report(syncs, requests, rejected, applied, cold, bytes, deliveries, ticks, elapsed,
+            percentile(latencies, count, 0.50), percentile(latencies, count, 0.90), percentile(latencies, count, 0.99),
+            count > 0 ? latencies[count - 1] : 0);
+    }
+
+    private static long percentile(long[] sorted, int count, double p) {
+        if (count == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+}
@@ -11,6 +11,7 @@ import net.neoforged.bus.api.SubscribeEvent;
 import net.neoforged.fml.common.EventBusSubscriber;
 import net.neoforged.neoforge.network.PacketDistributor;
 import net.neoforged.neoforge.network.event.RegisterPayloadHandlersEvent;
+import net.neoforged.neoforge.network.registration.HandlerThread;
 
 import java.util.Objects;
 
@@ -35,7 +36,33 @@ public class NetworkHandler {
             Objects.requireNonNull(STREAM_CODEC),
             MorphDataSyncPacket::handle
         );
+        registrar.playToClient(
+            Objects.requireNonNull(MorphBulkSyncPacket.TYPE),
+            Objects.requireNonNull(MorphBulkSyncPacket.STREAM_CODEC),
+            MorphBulkSyncPacket::handle
+        );
+        registrar.playToClient(
+            Objects.requireNonNull(MorphSnapshotPacket.TYPE),
+            Objects.requireNonNull(MorphSnapshotPacket.STREAM_CODEC),
+            MorphSnapshotPacket::handle
+        );
+        registrar.playToClient(
+            Objects.requireNonNull(MorphCatalogHashPacket.TYPE),
+            Objects.requireNonNull(MorphCatalogHashPacket.STREAM_CODEC),
+            MorphCatalogHashPacket::handle
+        );
+        registrar.playToClient(
+            Objects.requireNonNull(MorphCatalogPacket.TYPE),
+            Objects.requireNonNull(MorphCatalogPacket.STREAM_CODEC),
+            MorphCatalogPacket::handle
+        );
         registrar.playToServer(
+            Objects.requireNonNull(MorphCatalogRequestPacket.TYPE),
+            Objects.requireNonNull(MorphCatalogRequestPacket.STREAM_CODEC),
+            MorphCatalogRequestPacket::handle
+        );
+        // Requests are validated on the network thread before any work reaches the main thread
+        registrar.executesOn(HandlerThread.NETWORK).playToServer(
             Objects.requireNonNull(MorphRequestPacket.TYPE),
             Objects.requireNonNull(MorphRequestPacket.CODEC),
             MorphRequestPacket::handle
@@ -46,11 +73,11 @@ public class NetworkHandler {
         PacketDistributor.sendToServer(Objects.requireNonNull(message));
     }
 
-    public static void sendToAll(MorphDataSyncPacket message) {
+    public static void sendToAll(CustomPacketPayload message) {
         PacketDistributor.sendToAllPlayers(Objects.requireNonNull(message));
     }
 
-    public static void sendToPlayer(MorphDataSyncPacket message, ServerPlayer player) {
+    public static void sendToPlayer(CustomPacketPayload message, ServerPlayer player) {
         PacketDistributor.sendToPlayer(Objects.requireNonNull(player), Objects.requireNonNull(message));
     }
 }
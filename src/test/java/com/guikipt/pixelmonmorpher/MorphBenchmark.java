@@ -0,0 +1,46 @@
+package com.guikipt.pixelmonmorpher;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * Minimal timing harness for the opt-in benchmarks under src/test.
+ * Benchmark classes are enabled by {@link #PROPERTY}, set with {@code ./gradlew test -Pbenchmark=true};
+ * they print their numbers and never assert on speed, so a slow machine cannot fail the build.
+ */
+public final class MorphBenchmark {
+
+    public static final String PROPERTY = "pixelmonmorpher.benchmark";
+
+    private static final int WARMUP_ROUNDS = 10;
+    private static final int MEASURED_ROUNDS = 15;
+
+    // Results are folded in here so the JIT cannot drop the measured work
+    private static volatile long sink;
+
+    private MorphBenchmark() {
+    }
+
+    /**
+     * Median nanoseconds per operation over the measured rounds, after warm-up.
+     * Each call of {@code round} runs {@code opsPerRound} operations and returns a checksum of their results.
+     */
+    public static double nanosPerOp(int opsPerRound, LongSupplier round) {
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            sink += round.getAsLong();
+        }
+        long[] times = new long[MEASURED_ROUNDS];
+        for (int i = 0; i < MEASURED_ROUNDS; i++) {
+            long start = System.nanoTime();
+            sink += round.getAsLong();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return (double) times[MEASURED_ROUNDS / 2] / opsPerRound;
+    }
+
+    public static void report(String benchmark, String format, Object... args) {
+        System.out.println("[benchmark] " + benchmark + ": " + String.format(Locale.ROOT, format, args));
+    }
+}
@@ -0,0 +1,100 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.MorphBenchmark;
+
+import net.minecraft.nbt.CompoundTag;
+import net.minecraft.nbt.NbtIo;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+
+/**
+ * Save/load of 10k morph attachments in the compact schema against the original string-keyed tags
+ */
+@EnabledIfSystemProperty(named = MorphBenchmark.PROPERTY, matches = "true")
+class MorphDataSerializerBenchmark {
+
+    private static final int PLAYERS = 10_000;
+
+    @Test
+    void compactAgainstLegacySchema() {
+        String[] species = {"Charizard", "Pikachu", "Vulpix", "Lapras", "Gengar", "Eevee", "Magikarp"};
+        List<MorphData> morphs = new ArrayList<>(PLAYERS);
+        for (int i = 0; i < PLAYERS; i++) {
+            morphs.add(MorphData.of(species[i % species.length], i % 5 == 0 ? "alolan" : "", i % 4 == 0,
+                i % 9 == 0 ? "halloween" : "none", 1.0f + (i % 20) * 0.05f, 0.6f, 1.8f));
+        }
+
+        List<CompoundTag> compact = new ArrayList<>(PLAYERS);
+        List<CompoundTag> legacy = new ArrayList<>(PLAYERS);
+        for (MorphData morph : morphs) {
+            compact.add(morph.serializeNBT());
+            legacy.add(serializeLegacy(morph));
+        }
+
+        double compactSave = MorphBenchmark.nanosPerOp(PLAYERS, () -> {
+            long keys = 0;
+            for (MorphData morph : morphs) {
+                keys += Objects.requireNonNull(morph.serializeNBT()).size();
+            }
+            return keys;
+        });
+        double legacySave = MorphBenchmark.nanosPerOp(PLAYERS, () -> {
+            long keys = 0;
+            for (MorphData morph : morphs) {
+                keys += serializeLegacy(morph).size();
+            }
+            return keys;
+        });
+        double compactLoad = MorphBenchmark.nanosPerOp(PLAYERS, () -> load(compact));
+        double legacyLoad = MorphBenchmark.nanosPerOp(PLAYERS, () -> load(legacy));
+
+        MorphBenchmark.report("attachment save", "compact %.0f ns, legacy %.0f ns per morph", compactSave, legacySave);
+        MorphBenchmark.report("attachment load", "compact %.0f ns, legacy %.0f ns per morph", compactLoad, legacyLoad);
+        MorphBenchmark.report("attachment size", "compact %.1f bytes, legacy %.1f bytes per morph",
+            (double) written(compact) / PLAYERS, (double) written(legacy) / PLAYERS);
+    }
+
+    private static long load(List<CompoundTag> tags) {
+        long morphed = 0;
+        for (CompoundTag tag : tags) {
+            morphed += MorphData.deserializeNBT(tag).isMorphed() ? 1 : 0;
+        }
+        return morphed;
+    }
+
+    /**
+     * The original attachment layout, still read by {@link MorphData#deserializeNBT}
+     */
+    private static CompoundTag serializeLegacy(MorphData morph) {
+        CompoundTag tag = new CompoundTag();
+        tag.putBoolean("isMorphed", morph.isMorphed());
+        tag.putString("speciesName", Objects.requireNonNull(morph.getSpeciesName()));
+        tag.putString("formName", morph.getFormName() != null ? morph.getFormName() : "");
+        tag.putBoolean("isShiny", morph.isShiny());
+        tag.putString("palette", Objects.requireNonNull(morph.getPalette()));
+        tag.putFloat("size", morph.getSize());
+        tag.putFloat("width", morph.getWidth());
+        tag.putFloat("height", morph.getHeight());
+        return tag;
+    }
+
+    private static long written(List<CompoundTag> tags) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            for (CompoundTag tag : tags) {
+                NbtIo.write(tag, out);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.size();
+    }
+}
@@ -0,0 +1,86 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonObject;
+import com.guikipt.pixelmonmorpher.MorphBenchmark;
+
+import net.minecraft.resources.ResourceLocation;
+import net.minecraft.server.packs.resources.ResourceManager;
+import net.minecraft.util.profiling.InactiveProfiler;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Time to load a datapack's trait rules and compile them into every species/form, as a reload does.
+ * The species/forms are synthetic, typed like Pixelmon's, so it needs no Pixelmon registry.
+ */
+@EnabledIfSystemProperty(named = MorphBenchmark.PROPERTY, matches = "true")
+class MorphTraitRulesBenchmark {
+
+    private static final List<String> TYPES = List.of("normal", "fire", "water", "grass", "electric", "ice", "fighting",
+        "poison", "ground", "flying", "psychic", "bug", "rock", "ghost", "dragon", "dark", "steel", "fairy");
+    private static final String[] FORM_NAMES = {"", "alolan", "galarian", "hisuian", "mega"};
+    // Roughly the number of species/forms Pixelmon registers
+    private static final int FORMS = 1_500;
+    private static final int SPECIES_RULES = 100;
+
+    @Test
+    void reloadCompilesEveryForm() {
+        String[] species = new String[FORMS];
+        String[] forms = new String[FORMS];
+        List<List<String>> types = new ArrayList<>(FORMS);
+        int[] keys = new int[FORMS];
+        for (int i = 0; i < FORMS; i++) {
+            species[i] = "benchmon" + (i / FORM_NAMES.length);
+            forms[i] = FORM_NAMES[i % FORM_NAMES.length];
+            types.add(i % 3 == 0 ? List.of(TYPES.get(i % TYPES.size()))
+                : List.of(TYPES.get(i % TYPES.size()), TYPES.get((i * 7 + 1) % TYPES.size())));
+            keys[i] = MorphTraitTable.keyOf(species[i], forms[i]);
+        }
+
+        // One rule per type plus a block of species rules, a larger pack than the default
+        Map<ResourceLocation, JsonElement> files = new HashMap<>();
+        for (String type : TYPES) {
+            files.put(ResourceLocation.fromNamespaceAndPath("bench", "type_" + type), rule("types", type, "night_vision"));
+        }
+        for (int i = 0; i < SPECIES_RULES; i++) {
+            files.put(ResourceLocation.fromNamespaceAndPath("bench", "species_" + i), rule("species", "benchmon" + i, "fire_immunity"));
+        }
+        files.put(ResourceLocation.fromNamespaceAndPath("bench", "form_mega"), rule("forms", "mega", "fall_immunity"));
+
+        MorphTraitRules rules = new MorphTraitRules();
+        try {
+            double nanos = MorphBenchmark.nanosPerOp(1, () -> {
+                rules.apply(files, ResourceManager.Empty.INSTANCE, InactiveProfiler.INSTANCE);
+                long flags = 0;
+                for (int i = 0; i < FORMS; i++) {
+                    MorphTraitRules.compile(keys[i], species[i], forms[i], types.get(i));
+                    flags += MorphTraitTable.isResolved(keys[i], MorphTraitTable.RESOLVED_RULES) ? 1 : 0;
+                }
+                return flags;
+            });
+            MorphBenchmark.report("trait rule compile", "%d rules into %d species/forms in %.2f ms (%.0f ns per form)",
+                files.size(), FORMS, nanos / 1_000_000.0, nanos / FORMS);
+        } finally {
+            rules.apply(Map.of(), ResourceManager.Empty.INSTANCE, InactiveProfiler.INSTANCE);
+        }
+    }
+
+    private static JsonObject rule(String selector, String value, String trait) {
+        JsonObject json = new JsonObject();
+        JsonArray selected = new JsonArray();
+        selected.add(value);
+        json.add(selector, selected);
+        JsonArray traits = new JsonArray();
+        traits.add(trait);
+        json.add("traits", traits);
+        json.addProperty("speed", 0.05);
+        return json;
+    }
+}
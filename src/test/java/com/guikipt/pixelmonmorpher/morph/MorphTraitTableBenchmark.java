@@ -0,0 +1,67 @@
+package com.guikipt.pixelmonmorpher.morph;
+
+import com.guikipt.pixelmonmorpher.MorphBenchmark;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Trait lookup through the dense key table against the string-keyed map it replaced.
+ * Runs on synthetic species/forms seeded straight into the table, so it needs no Pixelmon registry.
+ */
+@EnabledIfSystemProperty(named = MorphBenchmark.PROPERTY, matches = "true")
+class MorphTraitTableBenchmark {
+
+    // Roughly the number of species/forms Pixelmon registers
+    private static final int FORMS = 1_500;
+    private static final String[] FORM_NAMES = {"base", "alolan", "galarian", "hisuian", "mega"};
+
+    @Test
+    void keyedLookupAgainstStringKeys() {
+        String[] species = new String[FORMS];
+        String[] forms = new String[FORMS];
+        int[] keys = new int[FORMS];
+        Map<String, MorphTraits> byName = new HashMap<>();
+
+        // Seed every form as a warm start does from the persisted catalog, then compile an empty rule set
+        for (int i = 0; i < FORMS; i++) {
+            species[i] = "Benchmon" + (i / FORM_NAMES.length);
+            forms[i] = FORM_NAMES[i % FORM_NAMES.length];
+            int key = MorphTraitTable.keyOf(species[i], forms[i]);
+            MorphTraitTable.seed(new MorphTraitTable.Entry(legacyKey(species[i], forms[i]), 10_000 + i / FORM_NAMES.length,
+                i % FORM_NAMES.length, i % 2 == 0 ? MorphTraits.FLAG_WATER : 0, 0.6f, 1.8f));
+            MorphTraitTable.putRules(key, 0, 0.0f, 0.0f);
+            keys[i] = key;
+            byName.put(legacyKey(species[i], forms[i]), MorphTraitTable.traits(key));
+        }
+
+        // Callers hold the key (the catalog snapshot and the trait profile carry it), so the table path is one array read
+        double table = MorphBenchmark.nanosPerOp(FORMS, () -> {
+            long flags = 0;
+            for (int i = 0; i < FORMS; i++) {
+                flags += MorphTraitTable.traits(keys[i]).flags();
+            }
+            return flags;
+        });
+        double strings = MorphBenchmark.nanosPerOp(FORMS, () -> {
+            long flags = 0;
+            for (int i = 0; i < FORMS; i++) {
+                flags += byName.get(legacyKey(species[i], forms[i])).flags();
+            }
+            return flags;
+        });
+
+        MorphBenchmark.report("trait lookup", "dense table %.1f ns, string key map %.1f ns per lookup over %d forms",
+            table, strings, FORMS);
+    }
+
+    /**
+     * Key built by the string-keyed caches before the table: two lowercase copies and a concatenation per lookup
+     */
+    private static String legacyKey(String species, String form) {
+        return species.toLowerCase() + ":" + (form != null ? form : "base").toLowerCase();
+    }
+}
@@ -0,0 +1,74 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import com.guikipt.pixelmonmorpher.MorphBenchmark;
+import com.guikipt.pixelmonmorpher.morph.MorphData;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Cost of one sync flush for 1, 50 and 500 viewers: encoding the bulk packet per viewer against
+ * encoding each entry once and sharing the bytes, as {@link MorphSyncQueue} does
+ */
+@EnabledIfSystemProperty(named = MorphBenchmark.PROPERTY, matches = "true")
+class MorphBulkSyncBenchmark {
+
+    private static final int[] VIEWERS = {1, 50, 500};
+    private static final int ENTRIES = 20;
+
+    @Test
+    void encodeOnceAgainstPerViewer() {
+        List<MorphDataSyncPacket> entries = new ArrayList<>(ENTRIES);
+        String[] species = {"Charizard", "Pikachu", "Vulpix", "Lapras", "Gengar"};
+        for (int i = 0; i < ENTRIES; i++) {
+            MorphData data = MorphData.of(species[i % species.length], i % 3 == 0 ? "alolan" : "", i % 2 == 0, "none",
+                1.0f + i * 0.05f, 0.6f + i * 0.01f, 1.2f + i * 0.02f);
+            entries.add(new MorphDataSyncPacket(null, 100 + i, i + 1, data));
+        }
+
+        for (int viewers : VIEWERS) {
+            double perViewer = MorphBenchmark.nanosPerOp(1, () -> {
+                long bytes = 0;
+                for (int viewer = 0; viewer < viewers; viewer++) {
+                    bytes += send(new MorphBulkSyncPacket(entries));
+                }
+                return bytes;
+            });
+            double shared = MorphBenchmark.nanosPerOp(1, () -> {
+                Map<MorphDataSyncPacket, byte[]> encoded = new HashMap<>();
+                List<byte[]> bytesOf = new ArrayList<>(entries.size());
+                for (MorphDataSyncPacket entry : entries) {
+                    bytesOf.add(encoded.computeIfAbsent(entry, MorphDataSyncPacket::toBytes));
+                }
+                MorphBulkSyncPacket packet = new MorphBulkSyncPacket(entries, bytesOf);
+                long bytes = 0;
+                for (int viewer = 0; viewer < viewers; viewer++) {
+                    bytes += send(packet);
+                }
+                return bytes;
+            });
+            MorphBenchmark.report("sync flush", "%d viewers x %d entries: per-viewer encode %.1f us, encode once %.1f us",
+                viewers, ENTRIES, perViewer / 1_000.0, shared / 1_000.0);
+        }
+    }
+
+    /**
+     * Write the packet into a fresh buffer, standing in for one connection's outbound pipeline
+     */
+    private static int send(MorphBulkSyncPacket packet) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(256));
+        try {
+            MorphBulkSyncPacket.encode(packet, buf);
+            return buf.readableBytes();
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,327 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import com.guikipt.pixelmonmorpher.morph.MorphData;
+import com.pixelmonmod.pixelmon.api.pokemon.species.gender.Gender;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.handler.codec.DecoderException;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.fail;
+
+/**
+ * Feeds random and mutated byte streams into every morph payload decoder.
+ * For each input, a decoder either throws a {@link DecoderException} (nothing else may escape),
+ * or accepts it within the entry and size caps, and re-encoding what it accepted is stable:
+ * encoding the decoded payload gives bytes that decode to the same payload and encode to the same bytes.
+ * Well-formed payloads must come back byte for byte.
+ */
+class MorphCodecFuzzTest {
+
+    private static final int ITERATIONS = 20_000;
+    private static final long SEED = 0x504D4655L;
+
+    private static final List<MorphDataSyncPacket> SAMPLE_ENTRIES = List.of(
+        new MorphDataSyncPacket(UUID.randomUUID(), MorphDataSyncPacket.NO_ENTITY, 1,
+            MorphData.of("Pikachu", "", false, "none", 1.0f, 0.6f, 0.8f)),
+        new MorphDataSyncPacket(null, 42, 7, MorphData.of("Vulpix", "alolan", true, "shiny", 1.5f, 1.2f, 1.4f)),
+        new MorphDataSyncPacket(null, 300, 2, MorphData.of("NotAPokemon", "strange", false, "custom_palette", 2.0f, 3.0f, 4.0f)),
+        new MorphDataSyncPacket(null, 5, 9, MorphData.EMPTY),
+        MorphDataSyncPacket.delta(17, 12, 11, MorphData.FIELD_SIZE | MorphData.FIELD_WIDTH | MorphData.FIELD_HEIGHT,
+            MorphData.of("Eevee", "", false, "none", 0.5f, 0.3f, 0.4f))
+    );
+
+    private static final List<MorphRequestPacket> SAMPLE_REQUESTS = List.of(
+        new MorphRequestPacket("Pikachu", "", false, "none", 1.0f, Gender.MALE, 5),
+        new MorphRequestPacket("Vulpix", "alolan", true, "shiny", 2.5f, Gender.FEMALE, 100),
+        new MorphRequestPacket("Magnemite", "base", false, "", 0.1f, Gender.NONE, 0)
+    );
+
+    @Test
+    void syncEntryDecoderOnlyThrowsDecoderException() {
+        fuzz("sync entry", samples(MorphDataSyncPacket::toBytes, SAMPLE_ENTRIES),
+            MorphCodecFuzzTest::decodeEntry, MorphCodecFuzzTest::encodeEntry,
+            (input, entry) -> assertNames(entry));
+    }
+
+    @Test
+    void bulkDecoderOnlyThrowsDecoderException() {
+        byte[] bulk = bytes(buf -> MorphBulkSyncPacket.encode(new MorphBulkSyncPacket(SAMPLE_ENTRIES), buf));
+        fuzz("bulk sync", List.of(bulk), MorphCodecFuzzTest::decodeBulk, MorphCodecFuzzTest::encodeBulk,
+            (input, packet) -> {
+                assertTrue(packet.entries().size() <= input.length / MorphDataSyncPacket.MIN_ENTRY_BYTES,
+                    "bulk entry count over the byte bound: " + packet.entries().size());
+                packet.entries().forEach(MorphCodecFuzzTest::assertNames);
+            });
+    }
+
+    @Test
+    void snapshotDecoderOnlyThrowsDecoderException() {
+        List<MorphDataSyncPacket> byUuid = List.of(
+            new MorphDataSyncPacket(UUID.randomUUID(), MorphDataSyncPacket.NO_ENTITY, 3,
+                MorphData.of("Charizard", "", false, "none", 1.0f, 1.5f, 1.9f)),
+            new MorphDataSyncPacket(UUID.randomUUID(), MorphDataSyncPacket.NO_ENTITY, 4, MorphData.EMPTY)
+        );
+        byte[] snapshot = bytes(buf -> MorphSnapshotPacket.encode(new MorphSnapshotPacket(byUuid), buf));
+        fuzz("snapshot", List.of(snapshot), MorphCodecFuzzTest::decodeSnapshot, MorphCodecFuzzTest::encodeSnapshot,
+            (input, packet) -> {
+                assertTrue(packet.entries().size() <= MorphSnapshotPacket.MAX_UNCOMPRESSED / MorphSnapshotPacket.MIN_ENTRY_BYTES,
+                    "snapshot entry count over the inflate bound: " + packet.entries().size());
+                packet.entries().forEach(MorphCodecFuzzTest::assertNames);
+            });
+    }
+
+    @Test
+    void requestDecoderOnlyThrowsDecoderException() {
+        fuzz("request", samples(MorphCodecFuzzTest::encodeRequest, SAMPLE_REQUESTS),
+            MorphCodecFuzzTest::decodeRequest, MorphCodecFuzzTest::encodeRequest,
+            (input, request) -> {
+                assertTrue(request.speciesName().length() <= MorphDataSyncPacket.MAX_NAME_LENGTH);
+                assertTrue(request.formName().length() <= MorphDataSyncPacket.MAX_NAME_LENGTH);
+                assertTrue(request.palette().length() <= MorphDataSyncPacket.MAX_NAME_LENGTH);
+                assertTrue(Float.isFinite(request.size()) && request.size() >= MorphRequestPacket.MIN_SIZE
+                    && request.size() <= MorphRequestPacket.MAX_SIZE, "size out of range: " + request.size());
+            });
+    }
+
+    @Test
+    void wellFormedPayloadsRoundTripExactly() {
+        for (MorphDataSyncPacket entry : SAMPLE_ENTRIES) {
+            byte[] encoded = encodeEntry(entry);
+            assertArrayEquals(encoded, encodeEntry(decodeEntry(encoded)));
+        }
+        for (MorphRequestPacket request : SAMPLE_REQUESTS) {
+            byte[] encoded = encodeRequest(request);
+            MorphRequestPacket decoded = decodeRequest(encoded);
+            assertEquals(request, decoded);
+            assertArrayEquals(encoded, encodeRequest(decoded));
+        }
+        byte[] bulk = bytes(buf -> MorphBulkSyncPacket.encode(new MorphBulkSyncPacket(SAMPLE_ENTRIES), buf));
+        assertArrayEquals(bulk, encodeBulk(decodeBulk(bulk)));
+    }
+
+    @Test
+    void snapshotRejectsDecompressionBombs() {
+        // 8 MiB of zeros deflates to a few KiB; declaring the real size must be refused before inflating
+        byte[] compressed = deflate(new byte[8 * 1024 * 1024]);
+        byte[] oversized = bytes(buf -> {
+            buf.writeVarInt(1);
+            buf.writeVarInt(8 * 1024 * 1024);
+            buf.writeByteArray(compressed);
+        });
+        assertThrows(DecoderException.class, () -> decodeSnapshot(oversized));
+
+        // Declaring the cap while the stream inflates past it leaves trailing zeros, which are rejected
+        byte[] capped = bytes(buf -> {
+            buf.writeVarInt(1);
+            buf.writeVarInt(MorphSnapshotPacket.MAX_UNCOMPRESSED);
+            buf.writeByteArray(compressed);
+        });
+        assertThrows(DecoderException.class, () -> decodeSnapshot(capped));
+    }
+
+    @Test
+    void forgedCountsAreRejectedBeforeAllocating() {
+        byte[] bulk = bytes(buf -> buf.writeVarInt(Integer.MAX_VALUE));
+        assertThrows(DecoderException.class, () -> decodeBulk(bulk));
+
+        byte[] snapshot = bytes(buf -> {
+            buf.writeVarInt(Integer.MAX_VALUE);
+            buf.writeVarInt(1024);
+            buf.writeByteArray(new byte[16]);
+        });
+        assertThrows(DecoderException.class, () -> decodeSnapshot(snapshot));
+    }
+
+    private interface Check<T> {
+        void accept(byte[] input, T decoded);
+    }
+
+    private static <T> void fuzz(String name, List<byte[]> seeds, Function<byte[], T> decode, Function<T, byte[]> encode, Check<T> check) {
+        Random random = new Random(SEED ^ name.hashCode());
+        int accepted = 0;
+        for (int i = 0; i < ITERATIONS; i++) {
+            byte[] input = i % 4 == 0 ? randomBytes(random) : mutate(seeds.get(random.nextInt(seeds.size())), random);
+            T decoded;
+            try {
+                decoded = decode.apply(input);
+            } catch (DecoderException e) {
+                continue;
+            } catch (Throwable t) {
+                fail(name + " decoder leaked " + t + " for input " + Arrays.toString(input), t);
+                return;
+            }
+
+            accepted++;
+            check.accept(input, decoded);
+
+            // Re-encoding what was accepted is stable
+            byte[] reencoded = encode.apply(decoded);
+            T redecoded = decode.apply(reencoded);
+            assertEquals(decoded, redecoded, name + " changed across a re-encode");
+            assertArrayEquals(reencoded, encode.apply(redecoded), name + " re-encoding is not stable");
+        }
+        assertTrue(accepted > 0, name + " fuzzing never produced an accepted payload");
+    }
+
+    private static byte[] randomBytes(Random random) {
+        byte[] bytes = new byte[random.nextInt(64)];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+
+    private static byte[] mutate(byte[] seed, Random random) {
+        byte[] bytes = seed.clone();
+        switch (random.nextInt(5)) {
+            case 0 -> {
+                // Flip a few bits
+                for (int flips = 1 + random.nextInt(3); flips > 0 && bytes.length > 0; flips--) {
+                    bytes[random.nextInt(bytes.length)] ^= (byte) (1 << random.nextInt(8));
+                }
+            }
+            case 1 -> {
+                // Replace a byte with an edge value
+                if (bytes.length > 0) {
+                    bytes[random.nextInt(bytes.length)] = (byte) new int[] {0x00, 0x7F, 0x80, 0xFF}[random.nextInt(4)];
+                }
+            }
+            case 2 -> bytes = Arrays.copyOf(bytes, random.nextInt(bytes.length + 1));
+            case 3 -> {
+                // Append garbage
+                byte[] extra = randomBytes(random);
+                bytes = Arrays.copyOf(bytes, bytes.length + extra.length);
+                System.arraycopy(extra, 0, bytes, seed.length, extra.length);
+            }
+            default -> {
+                // Overwrite a varint-sized run with a huge varint
+                if (bytes.length > 5) {
+                    int at = random.nextInt(bytes.length - 5);
+                    byte[] huge = {(byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0x07};
+                    System.arraycopy(huge, 0, bytes, at, huge.length);
+                }
+            }
+        }
+        return bytes;
+    }
+
+    private static void assertNames(MorphDataSyncPacket entry) {
+        MorphData data = entry.morphData();
+        for (String name : new String[] {data.getSpeciesName(), data.getFormName(), data.getPalette()}) {
+            assertTrue(name == null || name.length() <= MorphDataSyncPacket.MAX_NAME_LENGTH, "name over the cap: " + name);
+        }
+    }
+
+    private static <T> List<byte[]> samples(Function<T, byte[]> encode, List<T> values) {
+        List<byte[]> samples = new ArrayList<>(values.size());
+        values.forEach(value -> samples.add(encode.apply(value)));
+        return samples;
+    }
+
+    private static MorphDataSyncPacket decodeEntry(byte[] input) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(input));
+        MorphDataSyncPacket entry = MorphDataSyncPacket.decode(buf);
+        if (buf.isReadable()) {
+            // A lone entry is framed by its packet, so trailing bytes are a framing error
+            throw new DecoderException("trailing bytes");
+        }
+        return entry;
+    }
+
+    private static byte[] encodeEntry(MorphDataSyncPacket entry) {
+        return entry.toBytes();
+    }
+
+    private static MorphBulkSyncPacket decodeBulk(byte[] input) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(input));
+        MorphBulkSyncPacket packet = MorphBulkSyncPacket.decode(buf);
+        if (buf.isReadable()) {
+            throw new DecoderException("trailing bytes");
+        }
+        return packet;
+    }
+
+    private static byte[] encodeBulk(MorphBulkSyncPacket packet) {
+        return bytes(buf -> MorphBulkSyncPacket.encode(new MorphBulkSyncPacket(packet.entries()), buf));
+    }
+
+    private static MorphSnapshotPacket decodeSnapshot(byte[] input) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.wrappedBuffer(input));
+        MorphSnapshotPacket packet = MorphSnapshotPacket.decode(buf);
+        if (buf.isReadable()) {
+            throw new DecoderException("trailing bytes");
+        }
+        return packet;
+    }
+
+    private static byte[] encodeSnapshot(MorphSnapshotPacket packet) {
+        return bytes(buf -> MorphSnapshotPacket.encode(packet, buf));
+    }
+
+    private static MorphRequestPacket decodeRequest(byte[] input) {
+        ByteBuf buf = Unpooled.wrappedBuffer(input);
+        MorphRequestPacket request = MorphRequestPacket.CODEC.decode(buf);
+        if (buf.isReadable()) {
+            throw new DecoderException("trailing bytes");
+        }
+        return request;
+    }
+
+    private static byte[] encodeRequest(MorphRequestPacket request) {
+        ByteBuf buf = Unpooled.buffer();
+        try {
+            MorphRequestPacket.CODEC.encode(buf, request);
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            return bytes;
+        } finally {
+            buf.release();
+        }
+    }
+
+    private interface Writer {
+        void write(FriendlyByteBuf buf);
+    }
+
+    private static byte[] bytes(Writer writer) {
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer());
+        try {
+            writer.write(buf);
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            return bytes;
+        } finally {
+            buf.release();
+        }
+    }
+
+    private static byte[] deflate(byte[] input) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(input);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] chunk = new byte[8192];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+}
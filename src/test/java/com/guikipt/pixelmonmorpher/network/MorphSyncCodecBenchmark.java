@@ -0,0 +1,89 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import com.guikipt.pixelmonmorpher.MorphBenchmark;
+import com.guikipt.pixelmonmorpher.morph.MorphData;
+
+import io.netty.buffer.Unpooled;
+import net.minecraft.network.FriendlyByteBuf;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Bytes and encode time per morph sync, compact codec against the original UUID + string + float layout
+ */
+@EnabledIfSystemProperty(named = MorphBenchmark.PROPERTY, matches = "true")
+class MorphSyncCodecBenchmark {
+
+    private static final int ROUND = 10_000;
+
+    private record Sample(String name, UUID playerId, MorphDataSyncPacket packet) {
+    }
+
+    private static final UUID PLAYER = UUID.randomUUID();
+
+    private static final List<Sample> SAMPLES = List.of(
+        sample("base morph", MorphData.of("Charizard", "", false, "none", 1.0f, 1.5f, 1.9f)),
+        sample("form + shiny", MorphData.of("Vulpix", "alolan", true, "shiny", 1.25f, 0.6f, 0.7f)),
+        sample("custom palette", MorphData.of("Pikachu", "", false, "halloween", 1.0f, 0.5f, 0.6f)),
+        sample("unknown species", MorphData.of("Missingno", "", false, "none", 1.0f, 1.0f, 1.0f)),
+        sample("unmorph", MorphData.EMPTY)
+    );
+
+    @Test
+    void compactAgainstLegacyLayout() {
+        for (Sample sample : SAMPLES) {
+            int compact = sample.packet().toBytes().length;
+            int legacy = encodeLegacy(sample).length;
+            double compactNanos = MorphBenchmark.nanosPerOp(ROUND, () -> {
+                long bytes = 0;
+                for (int i = 0; i < ROUND; i++) {
+                    bytes += sample.packet().toBytes().length;
+                }
+                return bytes;
+            });
+            double legacyNanos = MorphBenchmark.nanosPerOp(ROUND, () -> {
+                long bytes = 0;
+                for (int i = 0; i < ROUND; i++) {
+                    bytes += encodeLegacy(sample).length;
+                }
+                return bytes;
+            });
+            MorphBenchmark.report("sync codec", "%s: compact %d bytes in %.0f ns, legacy %d bytes in %.0f ns",
+                sample.name(), compact, compactNanos, legacy, legacyNanos);
+        }
+    }
+
+    private static Sample sample(String name, MorphData data) {
+        // Broadcast updates address the player by entity id; the UUID form is only used for the login self-sync
+        return new Sample(name, PLAYER, new MorphDataSyncPacket(null, 1234, 5, data));
+    }
+
+    /**
+     * The original sync layout: the player UUID, a morphed flag, then species, form and palette strings and three floats
+     */
+    private static byte[] encodeLegacy(Sample sample) {
+        MorphData data = sample.packet().morphData();
+        FriendlyByteBuf buf = new FriendlyByteBuf(Unpooled.buffer(64));
+        try {
+            buf.writeUUID(sample.playerId());
+            buf.writeBoolean(data.isMorphed());
+            if (data.isMorphed()) {
+                buf.writeUtf(data.getSpeciesName() != null ? data.getSpeciesName() : "");
+                buf.writeUtf(data.getFormName() != null ? data.getFormName() : "");
+                buf.writeBoolean(data.isShiny());
+                buf.writeUtf(data.getPalette() != null ? data.getPalette() : "");
+                buf.writeFloat(data.getSize());
+                buf.writeFloat(data.getWidth());
+                buf.writeFloat(data.getHeight());
+            }
+            byte[] bytes = new byte[buf.readableBytes()];
+            buf.readBytes(bytes);
+            return bytes;
+        } finally {
+            buf.release();
+        }
+    }
+}
@@ -0,0 +1,62 @@
+package com.guikipt.pixelmonmorpher.network;
+
+import com.guikipt.pixelmonmorpher.morph.MorphData;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * How a receiver merges morph updates, including the unmorph a death sends on respawn
+ */
+class MorphSyncMergeTest {
+
+    private static final int ENTITY = 42;
+    private static final MorphData VULPIX = MorphData.of("Vulpix", "alolan", true, "shiny", 1.5f, 1.2f, 1.4f);
+    private static final MorphData BIG_VULPIX = MorphData.of("Vulpix", "alolan", true, "shiny", 2.0f, 1.6f, 1.9f);
+
+    @Test
+    void fullUpdateReplacesHeldState() {
+        assertSame(VULPIX, new MorphDataSyncPacket(null, ENTITY, 1, VULPIX).mergeInto(null, -1));
+        assertSame(BIG_VULPIX, new MorphDataSyncPacket(null, ENTITY, 2, BIG_VULPIX).mergeInto(VULPIX, 1));
+    }
+
+    @Test
+    void updateAtHeldEpochIsDroppedAsStale() {
+        assertNull(new MorphDataSyncPacket(null, ENTITY, 5, BIG_VULPIX).mergeInto(VULPIX, 5));
+        assertNull(new MorphDataSyncPacket(null, ENTITY, 4, BIG_VULPIX).mergeInto(VULPIX, 5));
+    }
+
+    @Test
+    void respawnUnmorphUnderTheOldEpochWouldBeLost() {
+        // Why a death must go through the sync queue: the same state change without an epoch bump never applies
+        assertNull(new MorphDataSyncPacket(null, ENTITY, 5, MorphData.EMPTY).mergeInto(VULPIX, 5));
+    }
+
+    @Test
+    void respawnUnmorphUnderANewEpochApplies() {
+        // The player's own client and existing viewers hold the pre-death morph
+        MorphData merged = new MorphDataSyncPacket(null, ENTITY, 6, MorphData.EMPTY).mergeInto(VULPIX, 5);
+        assertSame(MorphData.EMPTY, merged);
+        assertFalse(merged.isMorphed());
+
+        // A viewer that starts tracking the respawned player and held nothing gets the same full state
+        assertSame(MorphData.EMPTY, new MorphDataSyncPacket(null, ENTITY + 1, 6, MorphData.EMPTY).mergeInto(null, -1));
+    }
+
+    @Test
+    void deltaAgainstThePreDeathMorphIsNotAppliedAfterRespawn() {
+        // Held: the respawn unmorph at epoch 6; a delta built on the epoch 5 morph must wait for a full update
+        MorphDataSyncPacket delta = MorphDataSyncPacket.delta(ENTITY, 7, 5, VULPIX.diff(BIG_VULPIX), BIG_VULPIX);
+        assertNull(delta.mergeInto(MorphData.EMPTY, 6));
+        assertSame(BIG_VULPIX, new MorphDataSyncPacket(null, ENTITY, 7, BIG_VULPIX).mergeInto(MorphData.EMPTY, 6));
+    }
+
+    @Test
+    void deltaAppliesOnTopOfItsBase() {
+        MorphDataSyncPacket delta = MorphDataSyncPacket.delta(ENTITY, 3, 2, VULPIX.diff(BIG_VULPIX), BIG_VULPIX);
+        assertSame(BIG_VULPIX, delta.mergeInto(VULPIX, 2));
+    }
+}